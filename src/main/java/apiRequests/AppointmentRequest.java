@@ -2,14 +2,14 @@ package apiRequests;
 
 public class AppointmentRequest {
 
-	private int appointmentId;
+	private Integer appointmentId;
 	private Integer patientId;
 	private String firstName;
 	private String lastName;
 	private String middleName;
 	private String fullName;
 	private String gender;
-	private int age;
+	private Integer age;
 	private String contactNumber;
 	private String appointmentDate;
 	private String appointmentTime;
@@ -18,17 +18,17 @@ public class AppointmentRequest {
 	private String appointmentType;
 	private String appointmentStatus;
 	private String cancelledRemarks;
-	private int departmentId;
+	private Integer departmentId;
 
 	public String getFirstName() {
 		return firstName;
 	}
 
-	public int getAppointmentId() {
+	public Integer getAppointmentId() {
 		return appointmentId;
 	}
 
-	public void setAppointmentId(int appointmentId) {
+	public void setAppointmentId(Integer appointmentId) {
 		this.appointmentId = appointmentId;
 	}
 
@@ -100,11 +100,11 @@ public class AppointmentRequest {
 		this.gender = gender;
 	}
 
-	public int getAge() {
+	public Integer getAge() {
 		return age;
 	}
 
-	public void setAge(int age) {
+	public void setAge(Integer age) {
 		this.age = age;
 	}
 
@@ -148,11 +148,11 @@ public class AppointmentRequest {
 		this.appointmentType = appointmentType;
 	}
 
-	public int getDepartmentId() {
+	public Integer getDepartmentId() {
 		return departmentId;
 	}
 
-	public void setDepartmentId(int departmentId) {
+	public void setDepartmentId(Integer departmentId) {
 		this.departmentId = departmentId;
 	}
 
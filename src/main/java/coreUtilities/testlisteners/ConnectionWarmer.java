@@ -0,0 +1,50 @@
+package coreUtilities.testlisteners;
+
+import java.util.concurrent.TimeUnit;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import rest.ApiMetrics;
+import rest.ApiUtil;
+import rest.ConnectionPool;
+import restConfig.ConfigManager;
+
+
+
+/**
+ * Opens pooled connections to the base URL before any test runs, so the first
+ * request of each parallel class does not pay DNS, TCP connect and the TLS
+ * handshake. api.warmup.connections sets how many (0 turns it off; by default
+ * one per suite thread). The warm-up time is reported on its own and kept out
+ * of the per-endpoint latencies, under the "warmup" scope of ApiMetrics.
+ * Skipped unless api.transport is restassured, since only that transport uses
+ * {@link ConnectionPool}.
+ */
+public class ConnectionWarmer implements ISuiteListener
+{
+	public void onStart(ISuite suite) {
+		int connections = ConfigManager.getIntProperty("api.warmup.connections",
+				suite.getXmlSuite().getThreadCount());
+		if (connections <= 0) {
+			return;
+		}
+		// Only the RestAssured transport draws from ConnectionPool; the others keep their own connections
+		String transport = ConfigManager.getProperty("api.transport", "restassured");
+		if (!transport.equalsIgnoreCase("restassured")) {
+			System.out.println("API warm-up skipped: api.transport=" + transport + " does not use the connection pool");
+			return;
+		}
+		long start = System.nanoTime();
+		int opened = ConnectionPool.getInstance().warmUp(ApiUtil.baseUrl(), connections);
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		ApiMetrics.add("warmup", "connectionsOpened", opened);
+		ApiMetrics.add("warmup", "timeMs", elapsedMillis);
+		System.out.println("API warm-up: opened " + opened + " of " + connections + " connections to "
+				+ ApiUtil.baseUrl() + " in " + elapsedMillis + " ms");
+	}
+
+	public void onFinish(ISuite suite) {
+	}
+
+}
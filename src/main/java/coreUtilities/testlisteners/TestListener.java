@@ -8,11 +8,15 @@ import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 
 import coreUtilities.utils.ExtentReportManager;
+import rest.ApiMetrics;
+import rest.CircuitBreakerInterceptor;
+import rest.ConnectionPool;
 import static coreUtilities.testutils.TestUtils.businessTestFile;
 import static coreUtilities.testutils.TestUtils.currentTest;
 import static coreUtilities.testutils.TestUtils.yakshaAssert;
 
 import java.io.IOException;
+import java.util.Map;
 
 
 
@@ -29,6 +33,12 @@ public class TestListener implements ITestListener
  
     public synchronized void onFinish(ITestContext context) {
         System.out.println(("Extent Reports Version 3  Test Suite is ending!"));
+        System.out.println("API connection pool: " + ConnectionPool.getInstance().getStats());
+        System.out.print("API metrics:" + System.lineSeparator() + ApiMetrics.report());
+        for (Map.Entry<String, String> circuit : CircuitBreakerInterceptor.states().entrySet()) {
+            System.out.println("Circuit " + circuit.getKey() + ": " + circuit.getValue());
+            extent.setSystemInfo("Circuit " + circuit.getKey(), circuit.getValue());
+        }
         extent.flush();
     }
  
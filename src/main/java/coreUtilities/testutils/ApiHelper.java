@@ -5,18 +5,25 @@ import java.net.URL;
 
 import io.restassured.RestAssured;
 import io.restassured.response.Response;
+import rest.ConnectionPool;
 
 public class ApiHelper {
 	
 	public Response getRequest(String endPoint) throws MalformedURLException
 	{
-		return RestAssured.given()
+		Response response = RestAssured.given()
+							.config(ConnectionPool.getInstance().config())
 							.when()
 							.get(new URL(endPoint));
+		// Read the body so the pooled connection is released even if only the status is checked
+		response.asByteArray();
+		return response;
 	}
 	
 	public boolean isValidUrl(String endPoint) throws Exception {
 		try {
+			// relaxedHTTPSValidation() re-registers the https scheme on the client it is
+			// given, so this probe keeps its own client rather than the shared pool
 			Response response = RestAssured.given()
 			.relaxedHTTPSValidation()
 			.when()
@@ -0,0 +1,86 @@
+package rest;
+
+import io.restassured.RestAssured;
+import io.restassured.http.Method;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * One request travelling through the {@link ApiPipeline}: the registry entry
+ * it belongs to, the concrete path and the prepared request. Immutable, so an
+ * interceptor that needs to change it derives a new call instead. A streaming
+ * call's response body is left unread for the caller to consume, so
+ * interceptors that would have to buffer it pass such calls straight on.
+ */
+public final class ApiCall {
+
+	private final ApiEndpoint endpoint;
+	private final String path;
+	private final RequestSpecification request;
+	private final boolean streaming;
+
+	public ApiCall(ApiEndpoint endpoint, String path, RequestSpecification request) {
+		this(endpoint, path, request, false);
+	}
+
+	private ApiCall(ApiEndpoint endpoint, String path, RequestSpecification request, boolean streaming) {
+		this.endpoint = endpoint;
+		this.path = path;
+		this.request = request;
+		this.streaming = streaming;
+	}
+
+	public ApiEndpoint endpoint() {
+		return endpoint;
+	}
+
+	public Method method() {
+		return endpoint.method();
+	}
+
+	public String path() {
+		return path;
+	}
+
+	public RequestSpecification request() {
+		return request;
+	}
+
+	public boolean isStreaming() {
+		return streaming;
+	}
+
+	/**
+	 * @return String - The Authorization header this call is sent with, which
+	 *         identifies the user it runs as.
+	 */
+	public String principal() {
+		String authorization = ((FilterableRequestSpecification) request).getHeaders().getValue("Authorization");
+		return authorization == null ? "anonymous" : authorization;
+	}
+
+	/**
+	 * @return String - Identity of the exchange for caching and de-duplication:
+	 *         method, path and principal.
+	 */
+	public String key() {
+		return endpoint.method() + " " + path + " " + principal();
+	}
+
+	public ApiCall withHeader(String name, Object value) {
+		return withRequest(RestAssured.given().spec(request).header(name, value));
+	}
+
+	public ApiCall withRequest(RequestSpecification request) {
+		return new ApiCall(endpoint, path, request, streaming);
+	}
+
+	public ApiCall streaming() {
+		return new ApiCall(endpoint, path, request, true);
+	}
+
+	@Override
+	public String toString() {
+		return endpoint.method() + " " + path;
+	}
+}
@@ -0,0 +1,155 @@
+package rest;
+
+import java.time.Duration;
+import java.util.Map;
+
+import io.restassured.http.Method;
+import restConfig.ConfigManager;
+
+/**
+ * Registry of every HealthApp endpoint that {@link ApiUtil} talks to.
+ *
+ * @description Each entry declares its HTTP verb, path template and the
+ *              policies the request pipeline applies to it. Only GET, HEAD and
+ *              OPTIONS entries count as idempotent (and so may be retried or
+ *              hedged); a PUT or DELETE that the server really applies as a
+ *              plain overwrite can be marked with
+ *              {@code api.endpoint.<NAME>.idempotent=true}. Timeouts
+ *              and cache TTL have defaults here and can be overridden per
+ *              entry in config.properties, e.g.
+ *              {@code api.endpoint.ALL_STOCK_DETAILS.readTimeoutMs=20000},
+ *              {@code api.endpoint.ALL_STOCK_DETAILS.deadlineMs=30000} or
+ *              {@code api.endpoint.PHARMACY_STORES.cacheTtlSeconds=0}.
+ *              A connect/read timeout of 0 means the pooled client defaults
+ *              apply, the deadline defaults to api.timeout.deadlineMs (0 for
+ *              none), and a TTL of 0 means the response is never cached. For a
+ *              streaming call the deadline ends once the response headers have
+ *              arrived; see {@link #deadline()}. The group defaults to
+ *              the first path segment (the server-side controller, e.g.
+ *              {@code Appointment}) and can be overridden with
+ *              {@code api.endpoint.<NAME>.group}, and the path template itself
+ *              with {@code api.endpoint.<NAME>.path}. Paths are built with
+ *              {@link #expand(Object...)}, which percent-encodes every value.
+ */
+public enum ApiEndpoint {
+
+	CREATE_APPOINTMENT(Method.POST, "/Appointment/AddAppointment"),
+	APPLICABLE_DOCTORS(Method.GET, "/Visit/AppointmentApplicableDoctors", 300),
+	CANCEL_APPOINTMENT(Method.PUT, "/Appointment/AppointmentStatus?appointmentId={appointmentId}&status={status}"),
+	ADD_CURRENCY(Method.POST, "/InventorySettings/Currency"),
+	MATCHING_PATIENTS(Method.GET,
+			"/Patient/MatchingPatients?FirstName={FirstName}&LastName={LastName}&PhoneNumber={PhoneNumber}&Age={Age}"
+					+ "&Gender={Gender}&IsInsurance={IsInsurance}&IMISCode={IMISCode}"),
+	REGISTERED_PATIENTS(Method.GET, "/Patient/SearchRegisteredPatient?search={search}"),
+	UPDATE_APPOINTMENT(Method.PUT, "/Appointment/UpdateAppointment"),
+	CLASH_APPOINTMENT(Method.GET,
+			"/Appointment/CheckClashingAppointment?patientId={patientId}&requestDate={requestDate}&performerId={performerId}"),
+	SEARCH_PATIENT(Method.GET, "/Patient/SearchRegisteredPatient?search={search}"),
+	BOOKING_LIST(Method.GET,
+			"/Appointment/Appointments?FromDate={FromDate}&ToDate={ToDate}&performerId={performerId}&status={status}"),
+	ALL_STOCK_DETAILS(Method.GET, "/PharmacyStock/AllStockDetails"),
+	MAIN_STORE(Method.GET, "/PharmacySettings/MainStore", 300),
+	PHARMACY_STORES(Method.GET, "/Dispensary/PharmacyStores", 300),
+	PATIENT_CONSUMPTIONS(Method.GET, "/PatientConsumption/PatientConsumptions"),
+	ACTIVATE_PHARMACY_COUNTER(Method.PUT, "/Security/ActivatePharmacyCounter?counterId={counterId}&counterName={counterName}"),
+	DEACTIVATE_PHARMACY_COUNTER(Method.PUT, "/Security/DeactivatePharmacyCounter"),
+	APPOINTMENT_DEPARTMENTS(Method.GET, "/Master/AppointmentApplicableDepartments", 300),
+	ADMITTED_PATIENTS(Method.GET, "/Admission/AdmittedPatientsData?admissionStatus={admissionStatus}"),
+	BILLING_COUNTERS(Method.GET, "/billing/BillingCounters", 300),
+	// The file endpoints differ between HealthApp deployments; set api.endpoint.<NAME>.path to match
+	PATIENT_FILE_UPLOAD(Method.POST, "/Patient/UploadPatientFiles?patientId={patientId}"),
+	REPORT_DOWNLOAD(Method.GET, "/Reporting/DownloadReport?reportName={reportName}");
+
+	private final Method method;
+	private final String pathTemplate;
+	private final UriTemplate template;
+	private final boolean idempotent;
+	private final Duration connectTimeout;
+	private final Duration readTimeout;
+	private final Duration deadline;
+	private final long cacheTtlSeconds;
+	private final String group;
+
+	ApiEndpoint(Method method, String pathTemplate) {
+		this(method, pathTemplate, 0);
+	}
+
+	ApiEndpoint(Method method, String defaultPathTemplate, long defaultCacheTtlSeconds) {
+		String pathTemplate = ConfigManager.getProperty(key("path"), defaultPathTemplate);
+		this.method = method;
+		this.pathTemplate = pathTemplate;
+		this.template = UriTemplate.compile(pathTemplate);
+		// PUTs here change state (activating a counter, an appointment's status), so they are not
+		// assumed to be safe to repeat
+		this.idempotent = ConfigManager.getBooleanProperty(key("idempotent"),
+				method == Method.GET || method == Method.HEAD || method == Method.OPTIONS);
+		this.connectTimeout = Duration.ofMillis(ConfigManager.getLongProperty(key("connectTimeoutMs"), 0));
+		this.readTimeout = Duration.ofMillis(ConfigManager.getLongProperty(key("readTimeoutMs"), 0));
+		this.deadline = Duration.ofMillis(ConfigManager.getLongProperty(key("deadlineMs"),
+				ConfigManager.getLongProperty("api.timeout.deadlineMs", 0)));
+		this.cacheTtlSeconds = ConfigManager.getLongProperty(key("cacheTtlSeconds"), defaultCacheTtlSeconds);
+		this.group = ConfigManager.getProperty(key("group"), pathTemplate.substring(1, pathTemplate.indexOf('/', 1)));
+	}
+
+	private String key(String policy) {
+		return "api.endpoint." + name() + "." + policy;
+	}
+
+	public Method method() {
+		return method;
+	}
+
+	public String pathTemplate() {
+		return pathTemplate;
+	}
+
+	/**
+	 * @param values - One value per template variable, in template order.
+	 * @return String - The path with every value percent-encoded, ready to pass
+	 *         to the matching ApiUtil method.
+	 */
+	public String expand(Object... values) {
+		return template.expand(values);
+	}
+
+	public String expand(Map<String, ?> values) {
+		return template.expand(values);
+	}
+
+	public boolean isIdempotent() {
+		return idempotent;
+	}
+
+	public Duration connectTimeout() {
+		return connectTimeout;
+	}
+
+	public Duration readTimeout() {
+		return readTimeout;
+	}
+
+	/**
+	 * @return Duration - Upper bound for one whole exchange (connect, send and
+	 *         read the body), or zero for none. A streaming call
+	 *         ({@link ApiCall#streaming()}: streamResults, download,
+	 *         fetchPartitions/fetchPages) returns once the headers have
+	 *         arrived, so the deadline covers only that part; reading its body
+	 *         afterwards is bounded by the read timeout between packets on the
+	 *         RestAssured transport and not at all on the JDK transport.
+	 */
+	public Duration deadline() {
+		return deadline;
+	}
+
+	public long cacheTtlSeconds() {
+		return cacheTtlSeconds;
+	}
+
+	public String group() {
+		return group;
+	}
+
+	public boolean isCacheable() {
+		return method == Method.GET && cacheTtlSeconds > 0;
+	}
+}
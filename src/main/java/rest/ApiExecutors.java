@@ -0,0 +1,102 @@
+package rest;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import restConfig.ConfigManager;
+
+/**
+ * Executors used to run {@link ApiUtil} calls off the calling thread.
+ *
+ * @description The async pool is bounded in both threads (api.async.threads)
+ *              and queued tasks (api.async.queueCapacity). When the queue is
+ *              full the submitting thread runs the call itself, which slows
+ *              the producer down instead of dropping or piling up requests.
+ *
+ *              With api.async.mode=virtual each call gets its own virtual
+ *              thread instead (on a Java 21+ runtime, whatever the build
+ *              target), so tens
+ *              of thousands of requests can be in flight without sizing a
+ *              platform pool; the connection pool then becomes the only limit.
+ *              The executor is looked up reflectively so the Java 8 build keeps
+ *              compiling, and older runtimes fall back to the platform pool.
+ */
+public final class ApiExecutors {
+
+	private static final ExecutorService ASYNC = createAsyncExecutor();
+	private static final ExecutorService EXCHANGES = createExchangeExecutor();
+
+	private ApiExecutors() {
+	}
+
+	public static ExecutorService async() {
+		return ASYNC;
+	}
+
+	/**
+	 * Runs single exchanges on behalf of a thread that is already inside the
+	 * pipeline and waiting for them (e.g. hedged requests). Kept separate from
+	 * {@link #async()} and unbounded, because tasks that wait on subtasks queued
+	 * in their own bounded pool can starve it. The number of exchanges is
+	 * bounded by the callers waiting on them.
+	 */
+	public static ExecutorService exchanges() {
+		return EXCHANGES;
+	}
+
+	private static ExecutorService createAsyncExecutor() {
+		if ("virtual".equalsIgnoreCase(ConfigManager.getProperty("api.async.mode", "platform"))) {
+			ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+			if (virtual != null) {
+				return virtual;
+			}
+			System.out.println("Virtual threads need Java 21+, running " + System.getProperty("java.version")
+					+ "; falling back to the platform api-async pool.");
+		}
+		return createPlatformExecutor();
+	}
+
+	private static ExecutorService createExchangeExecutor() {
+		if ("virtual".equalsIgnoreCase(ConfigManager.getProperty("api.async.mode", "platform"))) {
+			ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+			if (virtual != null) {
+				return virtual;
+			}
+		}
+		return Executors.newCachedThreadPool(daemonThreads("api-exchange-"));
+	}
+
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	private static ExecutorService createPlatformExecutor() {
+		int threads = ConfigManager.getIntProperty("api.async.threads", 16);
+		int queueCapacity = ConfigManager.getIntProperty("api.async.queueCapacity", 500);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(queueCapacity), daemonThreads("api-async-"),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	static ThreadFactory daemonThreads(final String prefix) {
+		final AtomicInteger counter = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
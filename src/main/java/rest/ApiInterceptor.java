@@ -0,0 +1,18 @@
+package rest;
+
+import io.restassured.response.Response;
+
+/**
+ * A policy applied to every call in the {@link ApiPipeline}. Implementations
+ * usually look at {@link ApiCall#endpoint()} to decide whether and how to act,
+ * then either answer directly or hand the (possibly modified) call on with
+ * {@link Chain#proceed(ApiCall)}, which may be invoked more than once.
+ */
+public interface ApiInterceptor {
+
+	Response intercept(ApiCall call, Chain chain);
+
+	interface Chain {
+		Response proceed(ApiCall call);
+	}
+}
@@ -0,0 +1,72 @@
+package rest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JVM-wide counters and latency histograms for the request pipeline, grouped
+ * by scope (normally an {@link ApiEndpoint} name). Both are created on first
+ * use and are cheap to update from many threads at once.
+ */
+public final class ApiMetrics {
+
+	private static final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> COUNTERS = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+	private ApiMetrics() {
+	}
+
+	public static void increment(String scope, String counter) {
+		add(scope, counter, 1);
+	}
+
+	public static void add(String scope, String counter, long amount) {
+		COUNTERS.computeIfAbsent(scope, s -> new ConcurrentHashMap<>())
+				.computeIfAbsent(counter, c -> new LongAdder()).add(amount);
+	}
+
+	public static long get(String scope, String counter) {
+		Map<String, LongAdder> scoped = COUNTERS.get(scope);
+		LongAdder adder = scoped == null ? null : scoped.get(counter);
+		return adder == null ? 0 : adder.sum();
+	}
+
+	public static LatencyHistogram histogram(String scope, String name) {
+		return HISTOGRAMS.computeIfAbsent(scope + " " + name, k -> new LatencyHistogram());
+	}
+
+	/**
+	 * @return Map - Sorted copy of every counter, scope -> (counter -> value).
+	 */
+	public static Map<String, Map<String, Long>> snapshot() {
+		Map<String, Map<String, Long>> snapshot = new TreeMap<>();
+		for (Map.Entry<String, ConcurrentMap<String, LongAdder>> scope : COUNTERS.entrySet()) {
+			Map<String, Long> values = new TreeMap<>();
+			for (Map.Entry<String, LongAdder> counter : scope.getValue().entrySet()) {
+				values.put(counter.getKey(), counter.getValue().sum());
+			}
+			snapshot.put(scope.getKey(), values);
+		}
+		return snapshot;
+	}
+
+	public static String report() {
+		StringBuilder report = new StringBuilder();
+		for (Map.Entry<String, Map<String, Long>> scope : snapshot().entrySet()) {
+			report.append(scope.getKey()).append(' ').append(scope.getValue()).append(System.lineSeparator());
+		}
+		for (Map.Entry<String, LatencyHistogram> histogram : new TreeMap<>(HISTOGRAMS).entrySet()) {
+			report.append(histogram.getKey()).append(" {").append(histogram.getValue()).append('}')
+					.append(System.lineSeparator());
+		}
+		return report.toString();
+	}
+
+	public static void reset() {
+		COUNTERS.clear();
+		HISTOGRAMS.clear();
+	}
+}
@@ -0,0 +1,38 @@
+package rest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.restassured.response.Response;
+
+/**
+ * The single execution path behind every {@link ApiEndpoint}: the configured
+ * interceptors in order, then the {@link HttpTransport}.
+ */
+public final class ApiPipeline {
+
+	private final HttpTransport transport;
+	private final List<ApiInterceptor> interceptors;
+
+	public ApiPipeline(HttpTransport transport, List<ApiInterceptor> interceptors) {
+		this.transport = transport;
+		this.interceptors = Collections.unmodifiableList(new ArrayList<>(interceptors));
+	}
+
+	public HttpTransport transport() {
+		return transport;
+	}
+
+	public Response execute(ApiCall call) {
+		return proceed(0, call);
+	}
+
+	private Response proceed(final int index, ApiCall call) {
+		if (index == interceptors.size()) {
+			return call.isStreaming() ? transport.stream(call.method(), call.path(), call.request())
+					: transport.execute(call.method(), call.path(), call.request());
+		}
+		return interceptors.get(index).intercept(call, next -> proceed(index + 1, next));
+	}
+}
@@ -1,14 +1,77 @@
 package rest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import apiRequests.AppointmentRequest;
+import apiRequests.CurrencyRequest;
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.DecoderConfig.ContentDecoder;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.log.ErrorLoggingFilter;
+import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
+import restConfig.ConfigManager;
 
 public class ApiUtil {
 
-	private static final String BASE_URL = "https://healthapp.yaksha.com/api";
+	private static final String BASE_URL = ConfigManager.getProperty("base.url", "https://healthapp.yaksha.com/api");
+
+	/**
+	 * Base URI, authorization, content type, default filters and the pooled
+	 * client config (which carries the timeouts). Built once and never mutated
+	 * afterwards; each call merges it into its own spec through
+	 * {@code given().spec(BASE_SPEC)}, so it is safe to share across threads.
+	 * URL encoding is disabled because paths arrive already encoded by
+	 * {@link ApiEndpoint#expand(Object...)}.
+	 */
+	private static final RequestSpecification BASE_SPEC = buildBaseSpec();
+
+	private static final int FETCH_PARALLELISM = ConfigManager.getIntProperty("api.fetch.parallelism", 4);
+	private static final int FETCH_MAX_PAGES = ConfigManager.getIntProperty("api.fetch.maxPages", 1000);
+	private static final int UPLOAD_CHUNK_BYTES = ConfigManager.getIntProperty("api.upload.chunkBytes", 65536);
+	private static final int DOWNLOAD_BUFFER_BYTES = ConfigManager.getIntProperty("api.download.bufferBytes", 65536);
+	private static final boolean DOWNLOAD_RESUME = ConfigManager.getBooleanProperty("api.download.resume", true);
+	// Downloads are taken as stored: ranges and lengths must refer to the file, not an encoding of it
+	private static final RestAssuredConfig DOWNLOAD_CONFIG = ConnectionPool.getInstance().config()
+			.decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+
+	private static final TypeReference<Map<String, Object>> RESULT_ELEMENT = new TypeReference<Map<String, Object>>() {
+	};
+
+	// Per-endpoint policies, in order, in front of the transport selected by api.transport
+	private static final ApiPipeline PIPELINE = new ApiPipeline(HttpTransport.fromConfig(),
+			Arrays.<ApiInterceptor>asList(new MetricsInterceptor(), new CachingInterceptor(),
+					new CircuitBreakerInterceptor(), new SingleFlightInterceptor(), new ConditionalGetInterceptor(),
+					new HedgingInterceptor(), new RetryInterceptor(), new RateLimitInterceptor(),
+					new TimeoutInterceptor(), new CompressionInterceptor()));
+
+	private static RequestSpecification buildBaseSpec() {
+		// Sends Accept-Encoding and decodes the reply; CompressionInterceptor measures the savings
+		DecoderConfig decoders = ConfigManager.getBooleanProperty("api.compression.enabled", true)
+				? DecoderConfig.decoderConfig().contentDecoders(ContentDecoder.GZIP, ContentDecoder.DEFLATE)
+				: DecoderConfig.decoderConfig().noContentDecoders();
+		RequestSpecBuilder builder = new RequestSpecBuilder().setBaseUri(BASE_URL)
+				.addHeader("Authorization", AuthUtil.getAuthHeader()).setContentType(ContentType.JSON)
+				.setUrlEncodingEnabled(false).setConfig(ConnectionPool.getInstance().config().decoderConfig(decoders));
+		if (ConfigManager.getBooleanProperty("api.log.errors", false)) {
+			builder.addFilter(new ErrorLoggingFilter());
+		}
+		return builder.build();
+	}
+
+	public static String baseUrl() {
+		return BASE_URL;
+	}
 
 	/**
 	 * @Test1 This method creates a new appointment with authorization.
@@ -16,40 +79,65 @@ public class ApiUtil {
 	 * @param endpoint - The API endpoint to which the request is sent.
 	 * @param body     - A map containing the appointment details (FirstName,
 	 *                 LastName, etc.).
-	 * @description This method constructs a JSON payload from the given map, sends
-	 *              a POST request to the specified endpoint with the authorization
-	 *              header, and returns the response.
+	 * @description This method copies the map into an {@link AppointmentRequest},
+	 *              serializes it with {@link JsonPayloads}, sends a POST request
+	 *              to the specified endpoint with the authorization header, and
+	 *              returns the response. Age and DepartmentId are sent as numbers;
+	 *              missing values are left out of the payload.
 	 * @return Response - The response from the API after attempting to create the
 	 *         appointment.
 	 */
 	public Response createAppointmentWithAuth(String endpoint, Map<String, String> body) {
-		// Retrieve values from the Map
-		String firstName = body.get("FirstName");
-		String lastName = body.get("LastName");
-		String gender = body.get("Gender");
-		String age = body.get("Age");
-		String contactNumber = body.get("ContactNumber");
-		String appointmentDate = body.get("AppointmentDate");
-		String appointmentTime = body.get("AppointmentTime");
-		String performerName = body.get("PerformerName");
-		String appointmentType = body.get("AppointmentType");
-		String departmentId = body.get("DepartmentId");
-
-		// Construct the JSON payload as a string
-		String requestBody = "{ " + "\"FirstName\": \"" + firstName + "\", " + "\"LastName\": \"" + lastName + "\", "
-				+ "\"Gender\": \"" + gender + "\", " + "\"Age\": \"" + age + "\", " + "\"ContactNumber\": \""
-				+ contactNumber + "\", " + "\"AppointmentDate\": \"" + appointmentDate + "\", "
-				+ "\"AppointmentTime\": \"" + appointmentTime + "\", " + "\"PerformerName\": \"" + performerName
-				+ "\", " + "\"AppointmentType\": \"" + appointmentType + "\", " + "\"DepartmentId\": " + departmentId
-				+ " }";
-
-		return RestAssured.given().header("Authorization", AuthUtil.getAuthHeader()) // Adding authorization header
-				.header("Content-Type", "application/json") // Setting content type as JSON
-				.body(requestBody) // Adding the request payload as a JSON string
-				.post(BASE_URL + endpoint) // Sending POST request to the specified endpoint
+		// Copy the values from the Map into the typed request
+		AppointmentRequest appointment = new AppointmentRequest();
+		appointment.setFirstName(body.get("FirstName"));
+		appointment.setLastName(body.get("LastName"));
+		appointment.setGender(body.get("Gender"));
+		appointment.setAge(JsonPayloads.toInteger(body.get("Age")));
+		appointment.setContactNumber(body.get("ContactNumber"));
+		appointment.setAppointmentDate(body.get("AppointmentDate"));
+		appointment.setAppointmentTime(body.get("AppointmentTime"));
+		appointment.setPerformerName(body.get("PerformerName"));
+		appointment.setAppointmentType(body.get("AppointmentType"));
+		appointment.setDepartmentId(JsonPayloads.toInteger(body.get("DepartmentId")));
+
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC) // Base URI, authorization and content type
+				.body(JsonPayloads.toBytes(appointment)); // Adding the serialized JSON payload
+
+		return execute(ApiEndpoint.CREATE_APPOINTMENT, endpoint, request) // Sending the POST through the request pipeline
 				.then().extract().response(); // Extracting the response
 	}
 
+	/**
+	 * @description Creates an appointment for load runs, where thousands of
+	 *              bookings differ only in the patient and the slot. The body is
+	 *              rendered from a {@link PayloadTemplate} of
+	 *              createAppointmentData.json compiled once: FirstName, LastName,
+	 *              ContactNumber, AppointmentDate and AppointmentTime are filled
+	 *              in per call, every other field is encoded once from the file
+	 *              and sent as is, so no object is built or serialized per
+	 *              request.
+	 * @param endpoint - The API endpoint to which the request is sent.
+	 * @param values   - The five varying fields by name; a missing one is sent as
+	 *                 null.
+	 * @return Response - The response from the API.
+	 */
+	public Response createAppointmentFromTemplate(String endpoint, Map<String, ?> values) {
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC)
+				.body(AppointmentTemplate.BODY.render(values));
+
+		return execute(ApiEndpoint.CREATE_APPOINTMENT, endpoint, request).then().extract().response();
+	}
+
+	// Compiled on first use, so ApiUtil still loads when the test data is not on disk
+	private static final class AppointmentTemplate {
+
+		static final PayloadTemplate BODY = PayloadTemplate.fromFile(
+				ConfigManager.getProperty("api.load.appointmentTemplate",
+						"src/main/resources/testData/createAppointmentData.json"),
+				"FirstName", "LastName", "ContactNumber", "AppointmentDate", "AppointmentTime");
+	}
+
 	/**
 	 * @Test2 This method cancels an existing appointment with authorization.
 	 * 
@@ -65,15 +153,14 @@ public class ApiUtil {
 	 *         appointment.
 	 */
 	public Response getAllApplicableDoctorsWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.get(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.APPLICABLE_DOCTORS, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -91,15 +178,14 @@ public class ApiUtil {
 	 *         appointment.
 	 */
 	public Response cancelAppointmentWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.put(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.CANCEL_APPOINTMENT, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -108,29 +194,27 @@ public class ApiUtil {
 	 * @param endpoint - The API endpoint to which the request is sent.
 	 * @param body     - A map containing the currency details (CurrencyCode,
 	 *                 Description, etc.).
-	 * @description This method constructs a JSON payload from the given map, sends
-	 *              a POST request to the specified endpoint with the authorization
-	 *              header, and returns the response.
+	 * @description This method copies the map into a {@link CurrencyRequest},
+	 *              serializes it with {@link JsonPayloads}, sends a POST request
+	 *              to the specified endpoint with the authorization header, and
+	 *              returns the response. CreatedBy is sent as a number and
+	 *              IsActive as a boolean; missing values are left out.
 	 * @return Response - The response from the API after attempting to add a
 	 *         currency.
 	 */
 	public Response addCurrencyWithAuth(String endpoint, Map<String, String> body) {
 
-		String currencyCode = body.get("CurrencyCode");
-		String description = body.get("Description");
-		String createdBy = body.get("CreatedBy");
-		String createdOn = body.get("CreatedOn");
-		String isActive = body.get("IsActive");
-
-		// Construct the JSON payload as a string
-		String requestBody = "{ " + "\"CurrencyCode\": \"" + currencyCode + "\", " + "\"Description\": \"" + description
-				+ "\", " + "\"CreatedBy\": \"" + createdBy + "\", " + "\"CreatedOn\": \"" + createdOn + "\", "
-				+ "\"IsActive\": \"" + isActive + "\" " + "}";
-
-		return RestAssured.given().header("Authorization", AuthUtil.getAuthHeader()) // Adding authorization header
-				.header("Content-Type", "application/json") // Setting content type as JSON
-				.body(requestBody) // Adding the request payload as a JSON string
-				.post(BASE_URL + endpoint) // Sending POST request to the specified endpoint
+		CurrencyRequest currency = new CurrencyRequest();
+		currency.setCurrencyCode(body.get("CurrencyCode"));
+		currency.setDescription(body.get("Description"));
+		currency.setCreatedBy(JsonPayloads.toInteger(body.get("CreatedBy")));
+		currency.setCreatedOn(body.get("CreatedOn"));
+		currency.setIsActive(JsonPayloads.toBoolean(body.get("IsActive")));
+
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC) // Base URI, authorization and content type
+				.body(JsonPayloads.toBytes(currency)); // Adding the serialized JSON payload
+
+		return execute(ApiEndpoint.ADD_CURRENCY, endpoint, request) // Sending the POST through the request pipeline
 				.then().extract().response(); // Extracting the response
 	}
 
@@ -144,15 +228,14 @@ public class ApiUtil {
 	 *         patients with matching phone number.
 	 */
 	public Response findMatchingPatientWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.get(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.MATCHING_PATIENTS, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -165,28 +248,26 @@ public class ApiUtil {
 	 *         of all registered patients.
 	 */
 	public Response getRegisteredPatientsWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.get(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.REGISTERED_PATIENTS, endpoint, request).then().extract().response();
 	}
 
 	public Response updateAppoitnmentWithAuth(String endpoint, Object body) {
 
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.put(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.UPDATE_APPOINTMENT, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -202,15 +283,14 @@ public class ApiUtil {
 	 *         and a list of appointments in the "Results" field.
 	 */
 	public Response clashAppoitnmentWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.get(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.CLASH_APPOINTMENT, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -229,15 +309,14 @@ public class ApiUtil {
 	 *         list of matching patients in the "Results" field.
 	 */
 	public Response searchPatientWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.get(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.SEARCH_PATIENT, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -258,15 +337,14 @@ public class ApiUtil {
 	 *         each containing appointment and patient details.
 	 */
 	public Response bookingListWithAuthInRange(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.get(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.BOOKING_LIST, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -290,15 +368,14 @@ public class ApiUtil {
 	 *         list of stock items in the "Results" field.
 	 */
 	public Response AllStockDetailsWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.get(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.ALL_STOCK_DETAILS, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -322,15 +399,14 @@ public class ApiUtil {
 	 *         store details in the "Results" field.
 	 */
 	public Response MainStoreDetailsWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.get(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.MAIN_STORE, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -355,15 +431,14 @@ public class ApiUtil {
 	 *         message, and store details within the "Results" field.
 	 */
 	public Response PharmacyStoresWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.get(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.PHARMACY_STORES, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -389,15 +464,14 @@ public class ApiUtil {
 	 *         "Results" field.
 	 */
 	public Response PatientConsumption(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.get(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.PATIENT_CONSUMPTIONS, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -422,15 +496,14 @@ public class ApiUtil {
 	 *         field.
 	 */
 	public Response ActivatePharmCount(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.put(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.ACTIVATE_PHARMACY_COUNTER, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -451,15 +524,14 @@ public class ApiUtil {
 	 *         status message, and deactivation details in the "Results" field.
 	 */
 	public Response DeactivatePharmCount(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.put(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.DEACTIVATE_PHARMACY_COUNTER, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -481,15 +553,14 @@ public class ApiUtil {
 	 *         message, and a list of applicable departments in the "Results" field.
 	 */
 	public Response AppointApplicDept(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.get(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.APPOINTMENT_DEPARTMENTS, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -513,15 +584,14 @@ public class ApiUtil {
 	 *         message, and a list of admitted patients in the "Results" field.
 	 */
 	public Response admittedPatientData(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.get(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.ADMITTED_PATIENTS, endpoint, request).then().extract().response();
 	}
 
 	/**
@@ -534,15 +604,197 @@ public class ApiUtil {
 	 */
 
 	public Response getBillingCountersWithAuth(String endpoint, Object body) {
-		RequestSpecification request = RestAssured.given().header("Authorization", AuthUtil.getAuthHeader())
-				.header("Content-Type", "application/json");
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
 
 		// Only add the body if it's not null
 		if (body != null) {
 			request.body(body);
 		}
 
-		return request.get(BASE_URL + endpoint).then().extract().response();
+		return execute(ApiEndpoint.BILLING_COUNTERS, endpoint, request).then().extract().response();
+	}
+
+	/**
+	 * Generic execution path for any registered endpoint.
+	 * 
+	 * @param endpoint - The registry entry, which supplies the HTTP verb and the
+	 *                 policies applied to the call.
+	 * @param path     - The concrete path (with query string) to request.
+	 * @param body     - An optional request body, may be null.
+	 * @return Response - The response from the API.
+	 */
+	public Response call(ApiEndpoint endpoint, String path, Object body) {
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
+
+		// Only add the body if it's not null
+		if (body != null) {
+			request.body(body);
+		}
+
+		return execute(endpoint, path, request);
+	}
+
+	/**
+	 * @description Streams the {@code Results} array of a large list response
+	 *              (e.g. {@code /Patient/SearchRegisteredPatient?search=}) to a
+	 *              consumer one element at a time instead of building the whole
+	 *              body as a String and a {@code List<Map>} first. The body is
+	 *              parsed straight off the connection, so heap use does not grow
+	 *              with the number of results. Caching, revalidation,
+	 *              single-flight and hedging are skipped for streamed calls; the
+	 *              other policies still apply. Non-200 responses are read
+	 *              normally and report no elements.
+	 * @param endpoint - The registry entry of the list endpoint.
+	 * @param path     - The concrete path, see {@link ApiEndpoint#expand(Object...)}.
+	 * @param consumer - Receives each element of Results in order.
+	 * @return StreamedResults - Status code, top-level fields such as Status and
+	 *         the number of elements streamed.
+	 */
+	public StreamedResults streamResults(ApiEndpoint endpoint, String path,
+			Consumer<Map<String, Object>> consumer) {
+		RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
+		Response response = PIPELINE.execute(new ApiCall(endpoint, path, request).streaming());
+		if (response.statusCode() != 200) {
+			response.asByteArray();
+			return new StreamedResults(response.statusCode(), Collections.<String, Object>emptyMap(), 0);
+		}
+		return JsonResultStream.forEach(response.asInputStream(), "Results", RESULT_ELEMENT, consumer)
+				.withStatusCode(response.statusCode());
+	}
+
+	/**
+	 * @description Fetches a list split into disjoint partitions (one path each,
+	 *              e.g. one per date range or department) that are requested
+	 *              concurrently, at most api.fetch.parallelism at a time, and
+	 *              merged in the order given. Each partition is parsed straight
+	 *              off its response when its turn comes, so memory stays flat.
+	 *              Partitions must not overlap: nothing is de-duplicated. Search
+	 *              terms are not a valid split, since the server may match a
+	 *              record under several terms, or cap the results of one. No
+	 *              HealthApp list endpoint currently takes page or range
+	 *              parameters, so the patient registry is still fetched in a
+	 *              single request through {@link #streamResults}. Records
+	 *              fetch.slices per endpoint.
+	 * @param endpoint - The registry entry of the list endpoint.
+	 * @param paths    - One concrete path per partition, see
+	 *                 {@link ApiEndpoint#expand(Object...)}.
+	 * @param consumer - Receives the merged elements, on the calling thread.
+	 * @return ParallelFetchResult - Partitions merged and elements delivered.
+	 */
+	public ParallelFetchResult fetchPartitions(ApiEndpoint endpoint, List<String> paths,
+			Consumer<Map<String, Object>> consumer) {
+		return parallelFetch(endpoint).partitions(paths, consumer);
+	}
+
+	/**
+	 * @description Fetches a server-side paged list with up to
+	 *              api.fetch.parallelism pages in flight, merging them in page
+	 *              order and stopping at the first page with fewer than pageSize
+	 *              elements. Gives up after api.fetch.maxPages pages, or at a full
+	 *              page with nothing but duplicates of the one before; both leave
+	 *              {@link ParallelFetchResult#lastPageReached()} false. Records
+	 *              fetch.slices, fetch.duplicates and fetch.incomplete per
+	 *              endpoint.
+	 * @param pagePath - Path of the page with the given 0-based index.
+	 * @param pageSize - Elements per full page, as requested in the path.
+	 * @param keyField - Field identifying an element, e.g. PatientId, used to
+	 *                 drop an element that an insert pushed onto the next page
+	 *                 while paging; null keeps them all, as does an element
+	 *                 without the field.
+	 */
+	public ParallelFetchResult fetchPages(ApiEndpoint endpoint, IntFunction<String> pagePath, int pageSize,
+			String keyField, Consumer<Map<String, Object>> consumer) {
+		return parallelFetch(endpoint).pages(pagePath, pageSize, FETCH_MAX_PAGES, keyField, consumer);
+	}
+
+	private ParallelFetch parallelFetch(ApiEndpoint endpoint) {
+		return new ParallelFetch(endpoint.name(), FETCH_PARALLELISM, path -> {
+			RequestSpecification request = RestAssured.given().spec(BASE_SPEC);
+			Response response = PIPELINE.execute(new ApiCall(endpoint, path, request).streaming());
+			if (response.statusCode() != 200) {
+				response.asByteArray();
+				throw new IllegalStateException(endpoint.method() + " " + path + " returned "
+						+ response.statusCode() + " during a parallel fetch");
+			}
+			return response.asInputStream();
+		});
+	}
+
+	/**
+	 * @description Uploads a file as a {@code multipart/form-data} part without
+	 *              loading it into memory: the file is streamed from a
+	 *              FileChannel in chunks of api.upload.chunkBytes while the
+	 *              request is sent (chunked streaming; each chunk is still
+	 *              copied into the transport's buffer). Records upload.bytes and an upload latency
+	 *              histogram per endpoint. The stream cannot be replayed, so
+	 *              such calls are never retried.
+	 * @param endpoint    - The registry entry of the upload endpoint, e.g.
+	 *                    {@link ApiEndpoint#PATIENT_FILE_UPLOAD}.
+	 * @param path        - The concrete path, see {@link ApiEndpoint#expand(Object...)}.
+	 * @param controlName - The form field name of the file part, e.g. file.
+	 * @param file        - The file to send, e.g. testImage/uploadImage.png.
+	 * @return UploadResult - The response together with the bytes sent and the
+	 *         upload throughput.
+	 */
+	public UploadResult uploadFile(ApiEndpoint endpoint, String path, String controlName, Path file) {
+		return uploadFile(endpoint, path, controlName, file, UPLOAD_CHUNK_BYTES);
+	}
+
+	/**
+	 * @param chunkBytes - Size of each read from disk.
+	 */
+	public UploadResult uploadFile(ApiEndpoint endpoint, String path, String controlName, Path file,
+			int chunkBytes) {
+		try (MultipartFileStream body = new MultipartFileStream(file, controlName, chunkBytes)) {
+			RequestSpecification request = RestAssured.given().spec(BASE_SPEC).contentType(body.contentType())
+					.body(body);
+			Response response = execute(endpoint, path, request).then().extract().response();
+			String scope = endpoint.name();
+			ApiMetrics.add(scope, "upload.bytes", body.bytesRead());
+			ApiMetrics.histogram(scope, "upload").record(body.elapsedNanos());
+			return new UploadResult(response, body.bytesRead(), body.elapsedNanos());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not upload " + file, e);
+		}
+	}
+
+	/**
+	 * @description Downloads a response body (e.g. a generated report or invoice)
+	 *              straight to disk without holding it in memory, computing its
+	 *              SHA-256 on the way. If target already holds part of the body
+	 *              and api.download.resume is on, only the rest is requested with
+	 *              a Range header. The body is requested uncompressed so that
+	 *              ranges and lengths refer to the file itself. Records
+	 *              download.bytes and download.resumed per endpoint.
+	 * @param endpoint - The registry entry of the download endpoint, e.g.
+	 *                 {@link ApiEndpoint#REPORT_DOWNLOAD}.
+	 * @param path     - The concrete path, see {@link ApiEndpoint#expand(Object...)}.
+	 * @param target   - The file to write, e.g. in TestBase's downloads directory.
+	 * @return DownloadResult - Status code, bytes received, file size and
+	 *         SHA-256 of the complete file.
+	 */
+	public DownloadResult download(ApiEndpoint endpoint, String path, Path target) {
+		try {
+			DownloadResult result = FileDownload.fetch(target, DOWNLOAD_RESUME, DOWNLOAD_BUFFER_BYTES, offset -> {
+				RequestSpecification request = RestAssured.given().spec(BASE_SPEC).config(DOWNLOAD_CONFIG)
+						.header("Accept-Encoding", "identity");
+				if (offset > 0) {
+					request.header("Range", "bytes=" + offset + "-");
+				}
+				return PIPELINE.execute(new ApiCall(endpoint, path, request).streaming());
+			});
+			ApiMetrics.add(endpoint.name(), "download.bytes", result.bytesReceived());
+			if (result.resumed()) {
+				ApiMetrics.increment(endpoint.name(), "download.resumed");
+			}
+			return result;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not download " + path + " to " + target, e);
+		}
+	}
+
+	protected Response execute(ApiEndpoint endpoint, String path, RequestSpecification request) {
+		return PIPELINE.execute(new ApiCall(endpoint, path, request));
 	}
 
-}
\ No newline at end of file
+}
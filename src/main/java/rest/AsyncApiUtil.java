@@ -0,0 +1,158 @@
+package rest;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import io.restassured.response.Response;
+
+/**
+ * Non-blocking counterparts of every {@link ApiUtil} operation.
+ *
+ * @description Each {@code xxxAsync} method runs the matching ApiUtil call on
+ *              the bounded {@link ApiExecutors#async()} pool (or a caller
+ *              supplied executor) and returns immediately. Independent reads
+ *              can then be fired together and joined, e.g.
+ *              {@code CompletableFuture.allOf(doctors, stores, counters).join()},
+ *              so their latencies overlap instead of adding up. Consumers
+ *              passed to the streaming and fetch variants run on the executor
+ *              thread, not the caller's.
+ */
+public class AsyncApiUtil {
+
+	private final ApiUtil apiUtil;
+	private final Executor executor;
+
+	public AsyncApiUtil() {
+		this(new ApiUtil(), ApiExecutors.async());
+	}
+
+	public AsyncApiUtil(ApiUtil apiUtil, Executor executor) {
+		this.apiUtil = apiUtil;
+		this.executor = executor;
+	}
+
+	/**
+	 * Runs any blocking call on this instance's executor.
+	 */
+	public CompletableFuture<Response> supplyAsync(Supplier<Response> call) {
+		return CompletableFuture.supplyAsync(call, executor);
+	}
+
+	private <T> CompletableFuture<T> run(Supplier<T> call) {
+		return CompletableFuture.supplyAsync(call, executor);
+	}
+
+	public CompletableFuture<Response> createAppointmentWithAuthAsync(String endpoint, Map<String, String> body) {
+		return supplyAsync(() -> apiUtil.createAppointmentWithAuth(endpoint, body));
+	}
+
+	public CompletableFuture<Response> createAppointmentFromTemplateAsync(String endpoint, Map<String, ?> values) {
+		return supplyAsync(() -> apiUtil.createAppointmentFromTemplate(endpoint, values));
+	}
+
+	public CompletableFuture<Response> getAllApplicableDoctorsWithAuthAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.getAllApplicableDoctorsWithAuth(endpoint, body));
+	}
+
+	public CompletableFuture<Response> cancelAppointmentWithAuthAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.cancelAppointmentWithAuth(endpoint, body));
+	}
+
+	public CompletableFuture<Response> addCurrencyWithAuthAsync(String endpoint, Map<String, String> body) {
+		return supplyAsync(() -> apiUtil.addCurrencyWithAuth(endpoint, body));
+	}
+
+	public CompletableFuture<Response> findMatchingPatientWithAuthAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.findMatchingPatientWithAuth(endpoint, body));
+	}
+
+	public CompletableFuture<Response> getRegisteredPatientsWithAuthAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.getRegisteredPatientsWithAuth(endpoint, body));
+	}
+
+	public CompletableFuture<Response> updateAppoitnmentWithAuthAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.updateAppoitnmentWithAuth(endpoint, body));
+	}
+
+	public CompletableFuture<Response> clashAppoitnmentWithAuthAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.clashAppoitnmentWithAuth(endpoint, body));
+	}
+
+	public CompletableFuture<Response> searchPatientWithAuthAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.searchPatientWithAuth(endpoint, body));
+	}
+
+	public CompletableFuture<Response> bookingListWithAuthInRangeAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.bookingListWithAuthInRange(endpoint, body));
+	}
+
+	public CompletableFuture<Response> AllStockDetailsWithAuthAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.AllStockDetailsWithAuth(endpoint, body));
+	}
+
+	public CompletableFuture<Response> MainStoreDetailsWithAuthAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.MainStoreDetailsWithAuth(endpoint, body));
+	}
+
+	public CompletableFuture<Response> PharmacyStoresWithAuthAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.PharmacyStoresWithAuth(endpoint, body));
+	}
+
+	public CompletableFuture<Response> PatientConsumptionAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.PatientConsumption(endpoint, body));
+	}
+
+	public CompletableFuture<Response> ActivatePharmCountAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.ActivatePharmCount(endpoint, body));
+	}
+
+	public CompletableFuture<Response> DeactivatePharmCountAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.DeactivatePharmCount(endpoint, body));
+	}
+
+	public CompletableFuture<Response> AppointApplicDeptAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.AppointApplicDept(endpoint, body));
+	}
+
+	public CompletableFuture<Response> admittedPatientDataAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.admittedPatientData(endpoint, body));
+	}
+
+	public CompletableFuture<Response> getBillingCountersWithAuthAsync(String endpoint, Object body) {
+		return supplyAsync(() -> apiUtil.getBillingCountersWithAuth(endpoint, body));
+	}
+
+	public CompletableFuture<Response> callAsync(ApiEndpoint endpoint, String path, Object body) {
+		return supplyAsync(() -> apiUtil.call(endpoint, path, body));
+	}
+
+	public CompletableFuture<StreamedResults> streamResultsAsync(ApiEndpoint endpoint, String path,
+			Consumer<Map<String, Object>> consumer) {
+		return run(() -> apiUtil.streamResults(endpoint, path, consumer));
+	}
+
+	public CompletableFuture<ParallelFetchResult> fetchPartitionsAsync(ApiEndpoint endpoint, List<String> paths,
+			Consumer<Map<String, Object>> consumer) {
+		return run(() -> apiUtil.fetchPartitions(endpoint, paths, consumer));
+	}
+
+	public CompletableFuture<ParallelFetchResult> fetchPagesAsync(ApiEndpoint endpoint, IntFunction<String> pagePath,
+			int pageSize, String keyField, Consumer<Map<String, Object>> consumer) {
+		return run(() -> apiUtil.fetchPages(endpoint, pagePath, pageSize, keyField, consumer));
+	}
+
+	public CompletableFuture<UploadResult> uploadFileAsync(ApiEndpoint endpoint, String path, String controlName,
+			Path file) {
+		return run(() -> apiUtil.uploadFile(endpoint, path, controlName, file));
+	}
+
+	public CompletableFuture<DownloadResult> downloadAsync(ApiEndpoint endpoint, String path, Path target) {
+		return run(() -> apiUtil.download(endpoint, path, target));
+	}
+}
@@ -0,0 +1,47 @@
+package rest;
+
+import io.restassured.response.Response;
+import restConfig.ConfigManager;
+
+/**
+ * Serves cacheable endpoints (GET with a cache TTL in {@link ApiEndpoint})
+ * from a shared {@link ResponseCache}. Off unless api.cache.enabled=true.
+ * Entries are keyed by method, path and the caller's Authorization header,
+ * so different users never see each other's data. Only 200 responses are
+ * stored. Hits and misses are counted per endpoint in {@link ApiMetrics}.
+ */
+public class CachingInterceptor implements ApiInterceptor {
+
+	private static final ResponseCache CACHE = new ResponseCache(
+			ConfigManager.getIntProperty("api.cache.maxEntries", 256));
+
+	private final boolean enabled = ConfigManager.getBooleanProperty("api.cache.enabled", false);
+
+	public static ResponseCache cache() {
+		return CACHE;
+	}
+
+	@Override
+	public Response intercept(ApiCall call, Chain chain) {
+		ApiEndpoint endpoint = call.endpoint();
+		if (!enabled || !endpoint.isCacheable() || call.isStreaming()) {
+			return chain.proceed(call);
+		}
+
+		String key = call.key();
+		ResponseSnapshot cached = CACHE.get(key);
+		if (cached != null) {
+			ApiMetrics.increment(endpoint.name(), "cache.hit");
+			return cached.toResponse();
+		}
+
+		ApiMetrics.increment(endpoint.name(), "cache.miss");
+		Response response = chain.proceed(call);
+		if (response.statusCode() == 200) {
+			ResponseSnapshot snapshot = ResponseSnapshot.of(response);
+			CACHE.put(key, snapshot, endpoint.cacheTtlSeconds());
+			return snapshot.toResponse();
+		}
+		return response;
+	}
+}
@@ -0,0 +1,183 @@
+package rest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Closed / open / half-open circuit breaker over a count-based sliding window.
+ *
+ * @description While CLOSED every call is allowed and its outcome goes into a
+ *              ring of the last {@code windowSize} results. Once at least
+ *              {@code minimumCalls} are in the window and the failure rate
+ *              reaches {@code failureRateThreshold} percent the circuit OPENs
+ *              and calls are rejected for {@code openMillis}. It then turns
+ *              HALF_OPEN and lets {@code halfOpenCalls} probe calls through:
+ *              if all succeed it closes again, any failure re-opens it.
+ *              Every permit carries the state period it was granted in, and
+ *              an outcome reported after the breaker has moved on is dropped:
+ *              a slow call admitted while CLOSED cannot close or re-open a
+ *              HALF_OPEN breaker in place of its probes.
+ */
+public final class CircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	/** Returned by {@link #tryAcquire()} when the call must not go ahead. */
+	public static final long REJECTED = -1;
+
+	private final String name;
+	private final boolean[] window;
+	private final int minimumCalls;
+	private final double failureRateThreshold;
+	private final long openNanos;
+	private final int halfOpenCalls;
+	private final LongSupplier nanoTime;
+
+	private State state = State.CLOSED;
+	private int recorded;
+	private int next;
+	private int failures;
+	private long openedAt;
+	private int probesStarted;
+	private int probesSucceeded;
+	// Bumped on every state change; permits from an earlier period are stale
+	private long period;
+
+	public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold, long openMillis,
+			int halfOpenCalls) {
+		this(name, windowSize, minimumCalls, failureRateThreshold, openMillis, halfOpenCalls, System::nanoTime);
+	}
+
+	CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold, long openMillis,
+			int halfOpenCalls, LongSupplier nanoTime) {
+		this.name = name;
+		this.window = new boolean[windowSize];
+		this.minimumCalls = minimumCalls;
+		this.failureRateThreshold = failureRateThreshold;
+		this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+		this.halfOpenCalls = halfOpenCalls;
+		this.nanoTime = nanoTime;
+	}
+
+	/**
+	 * @return long - A permit for a call that may go ahead now, or
+	 *         {@link #REJECTED}. Every permit must be handed back to
+	 *         {@link #onSuccess(long)}, {@link #onFailure(long)} or, if the
+	 *         call never reached the server, {@link #onIgnored(long)}.
+	 */
+	public synchronized long tryAcquire() {
+		if (state == State.OPEN) {
+			if (nanoTime.getAsLong() - openedAt < openNanos) {
+				return REJECTED;
+			}
+			state = State.HALF_OPEN;
+			period++;
+			probesStarted = 0;
+			probesSucceeded = 0;
+		}
+		if (state == State.HALF_OPEN) {
+			if (probesStarted >= halfOpenCalls) {
+				return REJECTED;
+			}
+			probesStarted++;
+		}
+		return period;
+	}
+
+	public synchronized void onSuccess(long permit) {
+		if (permit != period) {
+			return;
+		}
+		if (state == State.HALF_OPEN) {
+			if (++probesSucceeded >= halfOpenCalls) {
+				close();
+			}
+		} else if (state == State.CLOSED) {
+			record(false);
+		}
+	}
+
+	public synchronized void onFailure(long permit) {
+		if (permit != period) {
+			return;
+		}
+		if (state == State.HALF_OPEN) {
+			open();
+		} else if (state == State.CLOSED) {
+			record(true);
+			if (recorded >= minimumCalls && failureRate() >= failureRateThreshold) {
+				open();
+			}
+		}
+	}
+
+	/**
+	 * Ends a permitted call without recording an outcome, e.g. one rejected by
+	 * a client-side rate limit. A half-open probe slot is handed back.
+	 */
+	public synchronized void onIgnored(long permit) {
+		if (permit == period && state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+			probesStarted--;
+		}
+	}
+
+	public synchronized State state() {
+		return state;
+	}
+
+	/**
+	 * @return long - Milliseconds until an open circuit lets a probe through,
+	 *         0 when it is not open.
+	 */
+	public synchronized long remainingOpenMillis() {
+		if (state != State.OPEN) {
+			return 0;
+		}
+		return Math.max(0, TimeUnit.NANOSECONDS.toMillis(openNanos - (nanoTime.getAsLong() - openedAt)));
+	}
+
+	public synchronized double failureRate() {
+		return recorded == 0 ? 0 : failures * 100.0 / recorded;
+	}
+
+	public String name() {
+		return name;
+	}
+
+	private void record(boolean failure) {
+		if (recorded == window.length) {
+			if (window[next]) {
+				failures--;
+			}
+		} else {
+			recorded++;
+		}
+		window[next] = failure;
+		if (failure) {
+			failures++;
+		}
+		next = (next + 1) % window.length;
+	}
+
+	private void open() {
+		state = State.OPEN;
+		period++;
+		openedAt = nanoTime.getAsLong();
+		ApiMetrics.increment(name, "circuit.opened");
+	}
+
+	private void close() {
+		state = State.CLOSED;
+		period++;
+		recorded = 0;
+		next = 0;
+		failures = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("%s (failureRate=%.1f%% of %d calls)", state, failureRate(), recorded);
+	}
+}
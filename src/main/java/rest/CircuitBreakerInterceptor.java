@@ -0,0 +1,90 @@
+package rest;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.restassured.response.Response;
+import restConfig.ConfigManager;
+
+/**
+ * Fails fast with {@link CircuitOpenException} while an endpoint keeps
+ * failing, instead of letting every caller wait out its timeouts.
+ *
+ * @description One {@link CircuitBreaker} per {@link ApiEndpoint}. Exceptions
+ *              (connection errors, timeouts) and 5xx responses count as
+ *              failures; 4xx answers mean the service is up and count as
+ *              successes. Calls refused by the client-side rate limiter
+ *              ({@link RateLimitExceededException}) are not counted at all.
+ *              Tuned with api.circuitBreaker.* and off unless
+ *              api.circuitBreaker.enabled=true. Rejected calls are counted as
+ *              circuit.rejected, and {@link #states()} is written into the
+ *              Extent report at the end of the suite.
+ */
+public class CircuitBreakerInterceptor implements ApiInterceptor {
+
+	private static final Map<ApiEndpoint, CircuitBreaker> BREAKERS = new EnumMap<>(ApiEndpoint.class);
+
+	static {
+		int windowSize = ConfigManager.getIntProperty("api.circuitBreaker.windowSize", 20);
+		int minimumCalls = ConfigManager.getIntProperty("api.circuitBreaker.minimumCalls", 5);
+		double failureRate = Double
+				.parseDouble(ConfigManager.getProperty("api.circuitBreaker.failureRateThreshold", "50"));
+		long openMillis = ConfigManager.getLongProperty("api.circuitBreaker.openMs", 30000);
+		int halfOpenCalls = ConfigManager.getIntProperty("api.circuitBreaker.halfOpenCalls", 2);
+		for (ApiEndpoint endpoint : ApiEndpoint.values()) {
+			BREAKERS.put(endpoint, new CircuitBreaker(endpoint.name(), windowSize, minimumCalls, failureRate,
+					openMillis, halfOpenCalls));
+		}
+	}
+
+	private final boolean enabled = ConfigManager.getBooleanProperty("api.circuitBreaker.enabled", false);
+
+	public static CircuitBreaker breaker(ApiEndpoint endpoint) {
+		return BREAKERS.get(endpoint);
+	}
+
+	/**
+	 * @return Map - Endpoint name to circuit state, for endpoints whose circuit
+	 *         has seen traffic or is not closed.
+	 */
+	public static Map<String, String> states() {
+		Map<String, String> states = new LinkedHashMap<>();
+		for (CircuitBreaker breaker : BREAKERS.values()) {
+			if (breaker.state() != CircuitBreaker.State.CLOSED || breaker.failureRate() > 0) {
+				states.put(breaker.name(), breaker.toString());
+			}
+		}
+		return states;
+	}
+
+	@Override
+	public Response intercept(ApiCall call, Chain chain) {
+		if (!enabled) {
+			return chain.proceed(call);
+		}
+
+		CircuitBreaker breaker = BREAKERS.get(call.endpoint());
+		long permit = breaker.tryAcquire();
+		if (permit == CircuitBreaker.REJECTED) {
+			ApiMetrics.increment(breaker.name(), "circuit.rejected");
+			throw new CircuitOpenException(call.endpoint(), breaker.remainingOpenMillis());
+		}
+		try {
+			Response response = chain.proceed(call);
+			if (response.statusCode() >= 500) {
+				breaker.onFailure(permit);
+			} else {
+				breaker.onSuccess(permit);
+			}
+			return response;
+		} catch (RateLimitExceededException e) {
+			// Throttled on our side before reaching the server: says nothing about its health
+			breaker.onIgnored(permit);
+			throw e;
+		} catch (RuntimeException | Error e) {
+			breaker.onFailure(permit);
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package rest;
+
+/**
+ * Thrown instead of sending a request while the endpoint's circuit is open.
+ */
+@SuppressWarnings("serial")
+public class CircuitOpenException extends RuntimeException {
+
+	public CircuitOpenException(ApiEndpoint endpoint, long retryInMillis) {
+		super("Circuit for " + endpoint + " is open after repeated failures; not calling it for another "
+				+ retryInMillis + " ms");
+	}
+}
@@ -0,0 +1,81 @@
+package rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import restConfig.ConfigManager;
+
+/**
+ * Measures what content encoding saves and optionally gzips large request
+ * bodies.
+ *
+ * @description Both transports advertise {@code Accept-Encoding: gzip,deflate}
+ *              and decode the reply transparently (api.compression.enabled).
+ *              This interceptor counts, per endpoint, response.wireBytes (as
+ *              received, before decoding) against response.decodedBytes (what
+ *              the caller sees). With api.compression.gzipRequests=true, bodies
+ *              of at least api.compression.requestMinBytes are sent gzipped
+ *              with {@code Content-Encoding: gzip}, counted as request.rawBytes
+ *              and request.wireBytes; the server has to accept that encoding.
+ *              Sits last in the pipeline so that it runs on the thread that
+ *              reads the response.
+ */
+public class CompressionInterceptor implements ApiInterceptor {
+
+	private final boolean gzipRequests = ConfigManager.getBooleanProperty("api.compression.gzipRequests", false);
+	private final int requestMinBytes = ConfigManager.getIntProperty("api.compression.requestMinBytes", 8192);
+
+	@Override
+	public Response intercept(ApiCall call, Chain chain) {
+		String scope = call.endpoint().name();
+		ApiCall sent = gzipRequests ? compressBody(call, scope) : call;
+		if (call.isStreaming()) {
+			// The body is read after this returns, so there is nothing to measure here
+			return chain.proceed(sent);
+		}
+
+		WireCounter wire = WireCounter.bind();
+		try {
+			Response response = chain.proceed(sent);
+			ApiMetrics.add(scope, "response.wireBytes", wire.bytes());
+			ApiMetrics.add(scope, "response.decodedBytes", wire.decodedBytes());
+			return response;
+		} finally {
+			WireCounter.unbind();
+		}
+	}
+
+	private ApiCall compressBody(ApiCall call, String scope) {
+		Object body = ((FilterableRequestSpecification) call.request()).getBody();
+		// Streamed bodies (file uploads) are sent as they are
+		if (body == null || body instanceof InputStream) {
+			return call;
+		}
+		byte[] raw = body instanceof byte[] ? (byte[]) body : body.toString().getBytes(StandardCharsets.UTF_8);
+		if (raw.length < requestMinBytes) {
+			return call;
+		}
+		byte[] gzipped = gzip(raw);
+		ApiMetrics.add(scope, "request.rawBytes", raw.length);
+		ApiMetrics.add(scope, "request.wireBytes", gzipped.length);
+		return call.withRequest(
+				RestAssured.given().spec(call.request()).header("Content-Encoding", "gzip").body(gzipped));
+	}
+
+	private static byte[] gzip(byte[] raw) {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+			gzip.write(raw);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return compressed.toByteArray();
+	}
+}
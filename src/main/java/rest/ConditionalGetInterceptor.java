@@ -0,0 +1,65 @@
+package rest;
+
+import io.restassured.http.Headers;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import restConfig.ConfigManager;
+
+/**
+ * Revalidates GET responses instead of downloading them again.
+ *
+ * @description When a 200 carries an {@code ETag} or {@code Last-Modified}
+ *              header, the body is kept (LRU, api.revalidation.maxEntries).
+ *              The next identical GET is sent with {@code If-None-Match} /
+ *              {@code If-Modified-Since}; a {@code 304 Not Modified} reply is
+ *              answered from the stored body as a normal 200, so callers see
+ *              no difference. Off unless api.revalidation.enabled=true.
+ *              Counts revalidation.notModified and revalidation.bytesSaved per
+ *              endpoint.
+ */
+public class ConditionalGetInterceptor implements ApiInterceptor {
+
+	private static final ResponseCache VALIDATED = new ResponseCache(
+			ConfigManager.getIntProperty("api.revalidation.maxEntries", 128));
+
+	private final boolean enabled = ConfigManager.getBooleanProperty("api.revalidation.enabled", false);
+
+	@Override
+	public Response intercept(ApiCall call, Chain chain) {
+		if (!enabled || call.method() != Method.GET || call.isStreaming()) {
+			return chain.proceed(call);
+		}
+
+		String key = call.key();
+		ResponseSnapshot stored = VALIDATED.get(key);
+		ApiCall conditional = call;
+		if (stored != null) {
+			String etag = stored.headers().getValue("ETag");
+			String lastModified = stored.headers().getValue("Last-Modified");
+			if (etag != null) {
+				conditional = conditional.withHeader("If-None-Match", etag);
+			}
+			if (lastModified != null) {
+				conditional = conditional.withHeader("If-Modified-Since", lastModified);
+			}
+		}
+
+		Response response = chain.proceed(conditional);
+		String scope = call.endpoint().name();
+		if (response.statusCode() == 304 && stored != null) {
+			ApiMetrics.increment(scope, "revalidation.notModified");
+			ApiMetrics.add(scope, "revalidation.bytesSaved", stored.bodyLength());
+			return stored.toResponse();
+		}
+		if (response.statusCode() == 200 && hasValidator(response.headers())) {
+			ResponseSnapshot snapshot = ResponseSnapshot.of(response);
+			VALIDATED.put(key, snapshot, 0);
+			return snapshot.toResponse();
+		}
+		return response;
+	}
+
+	private static boolean hasValidator(Headers headers) {
+		return headers.hasHeaderWithName("ETag") || headers.hasHeaderWithName("Last-Modified");
+	}
+}
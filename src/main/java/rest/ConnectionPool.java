@@ -0,0 +1,407 @@
+package rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import restConfig.ConfigManager;
+
+/**
+ * Shared keep-alive connection pool used by every {@link ApiUtil} call.
+ *
+ * @description RestAssured creates (and shuts down) a new Apache client for
+ *              every request unless it is told otherwise, so each call used to
+ *              pay a fresh TCP + TLS handshake. This class owns one pooled
+ *              client for the whole JVM and hands it to RestAssured through
+ *              {@link #config()}. Pool sizes, keep-alive and idle eviction are
+ *              read from config.properties (api.pool.*), as are the default
+ *              connect/read timeouts (api.timeout.*) and the TLS session
+ *              cache (api.tls.*). Per-endpoint timeouts
+ *              bound through {@link ExchangeTimeouts} override those defaults
+ *              for a single exchange.
+ */
+public final class ConnectionPool {
+
+	private static final ConnectionPool INSTANCE = new ConnectionPool();
+
+	private final AtomicLong connectionsOpened = new AtomicLong();
+	private final AtomicLong requestsExecuted = new AtomicLong();
+	@SuppressWarnings("deprecation")
+	private final org.apache.http.impl.conn.PoolingClientConnectionManager connectionManager;
+	@SuppressWarnings("deprecation")
+	private final org.apache.http.impl.client.DefaultHttpClient httpClient;
+	private final RestAssuredConfig restAssuredConfig;
+	private final ScheduledExecutorService evictor;
+	private final long keepAliveMillis;
+	private final SSLContext sslContext;
+
+	@SuppressWarnings("deprecation")
+	private ConnectionPool() {
+		sslContext = createSslContext();
+		org.apache.http.conn.scheme.SchemeRegistry schemes = org.apache.http.impl.conn.SchemeRegistryFactory
+				.createDefault();
+		schemes.register(
+				new org.apache.http.conn.scheme.Scheme("https", 443, new HandshakeMeteringSocketFactory(sslContext)));
+		connectionManager = new org.apache.http.impl.conn.PoolingClientConnectionManager(schemes,
+				ConfigManager.getLongProperty("api.pool.timeToLiveSeconds", -1), TimeUnit.SECONDS) {
+			@Override
+			protected org.apache.http.conn.ClientConnectionOperator createConnectionOperator(
+					org.apache.http.conn.scheme.SchemeRegistry schemeRegistry) {
+				return new org.apache.http.impl.conn.DefaultClientConnectionOperator(schemeRegistry) {
+					@Override
+					public void openConnection(org.apache.http.conn.OperatedClientConnection conn, HttpHost target,
+							InetAddress local, HttpContext context, org.apache.http.params.HttpParams params)
+							throws IOException {
+						// Every call here is a new socket, i.e. a TCP (+ TLS) handshake
+						connectionsOpened.incrementAndGet();
+						ExchangeTimeouts timeouts = ExchangeTimeouts.current();
+						if (timeouts != null && timeouts.connectMillis() > 0) {
+							org.apache.http.params.HttpParams override = new org.apache.http.params.BasicHttpParams();
+							org.apache.http.params.HttpConnectionParams.setConnectionTimeout(override,
+									timeouts.connectMillis());
+							params = new org.apache.http.params.DefaultedHttpParams(override, params);
+						}
+						super.openConnection(conn, target, local, context, params);
+					}
+				};
+			}
+		};
+		connectionManager.setMaxTotal(ConfigManager.getIntProperty("api.pool.maxTotal", 50));
+		connectionManager.setDefaultMaxPerRoute(ConfigManager.getIntProperty("api.pool.maxPerRoute", 20));
+
+		keepAliveMillis = TimeUnit.SECONDS.toMillis(ConfigManager.getLongProperty("api.pool.keepAliveSeconds", 30));
+		httpClient = new org.apache.http.impl.client.DefaultHttpClient(connectionManager);
+		org.apache.http.params.HttpParams params = httpClient.getParams();
+		org.apache.http.params.HttpConnectionParams.setConnectionTimeout(params,
+				ConfigManager.getIntProperty("api.timeout.connectMs", 10000));
+		org.apache.http.params.HttpConnectionParams.setSoTimeout(params,
+				ConfigManager.getIntProperty("api.timeout.readMs", 60000));
+		org.apache.http.client.params.HttpClientParams.setConnectionManagerTimeout(params,
+				ConfigManager.getLongProperty("api.pool.leaseTimeoutMs", 30000));
+		httpClient.setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy() {
+			@Override
+			public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+				// Honour the server's Keep-Alive header, otherwise fall back to our default
+				long serverValue = super.getKeepAliveDuration(response, context);
+				return serverValue > 0 ? serverValue : keepAliveMillis;
+			}
+		});
+		// Registered before RestAssured adds its gzip/deflate decoders, so this sees the
+		// entity exactly as it came off the wire
+		httpClient.addResponseInterceptor((response, context) -> {
+			WireCounter wire = WireCounter.current();
+			if (wire != null && response.getEntity() != null) {
+				response.setEntity(new WireCountingEntity(response.getEntity(), wire));
+			}
+		});
+		// Retries are made (and budgeted) by RetryInterceptor, not silently by the client
+		httpClient.setHttpRequestRetryHandler(new DefaultHttpRequestRetryHandler(0, false));
+		httpClient.addRequestInterceptor((request, context) -> requestsExecuted.incrementAndGet());
+		httpClient.addRequestInterceptor((request, context) -> {
+			// Runs once the connection is leased and open, just before the request is written
+			ExchangeTimeouts timeouts = ExchangeTimeouts.current();
+			if (timeouts == null) {
+				return;
+			}
+			if (timeouts.readMillis() > 0) {
+				((HttpConnection) context.getAttribute(HttpCoreContext.HTTP_CONNECTION))
+						.setSocketTimeout(timeouts.readMillis());
+			}
+			if (request instanceof org.apache.http.impl.client.RequestWrapper) {
+				Object original = ((org.apache.http.impl.client.RequestWrapper) request).getOriginal();
+				if (original instanceof HttpUriRequest) {
+					timeouts.attach((HttpUriRequest) original);
+				}
+			}
+		});
+
+		// Without reuseHttpClientInstance() RestAssured shuts the connection manager
+		// down after every response, which would defeat the pool entirely
+		restAssuredConfig = RestAssured.config().httpClient(
+				HttpClientConfig.httpClientConfig().httpClientFactory(() -> httpClient).reuseHttpClientInstance());
+
+		final long idleSeconds = ConfigManager.getLongProperty("api.pool.idleEvictionSeconds", 60);
+		long intervalSeconds = ConfigManager.getLongProperty("api.pool.evictionIntervalSeconds", 15);
+		evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "api-pool-evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		evictor.scheduleWithFixedDelay(() -> {
+			connectionManager.closeExpiredConnections();
+			connectionManager.closeIdleConnections(idleSeconds, TimeUnit.SECONDS);
+		}, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+	}
+
+	public static ConnectionPool getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return RestAssuredConfig - A config that routes requests through the
+	 *         shared pooled client. Pass it to {@code given().config(..)}.
+	 */
+	public RestAssuredConfig config() {
+		return restAssuredConfig;
+	}
+
+	@SuppressWarnings("deprecation")
+	public org.apache.http.impl.client.DefaultHttpClient httpClient() {
+		return httpClient;
+	}
+
+	/**
+	 * @return SSLContext - The context behind every pooled TLS connection. Its
+	 *         client session cache is what makes resumption possible, so other
+	 *         HTTP stacks talking to the same hosts should share it.
+	 */
+	public SSLContext sslContext() {
+		return sslContext;
+	}
+
+	/**
+	 * @description Opens up to {@code connections} pooled connections to the
+	 *              host of {@code url} in parallel, paying DNS, TCP and TLS up
+	 *              front, and leaves them idle in the pool for the first
+	 *              requests. Every connection is held until all have been
+	 *              opened so that none is reused within the warm-up itself.
+	 *              Capped at api.pool.maxPerRoute. Failures are logged and do
+	 *              not stop the others.
+	 * @param url         - Any URL on the target host, normally the base URL.
+	 * @param connections - Number of connections wanted.
+	 * @return int - Number of connections newly opened.
+	 */
+	@SuppressWarnings("deprecation")
+	public int warmUp(String url, int connections) {
+		URI uri = URI.create(url);
+		HttpHost target = URIUtils.extractHost(uri);
+		final HttpRoute route;
+		try {
+			route = httpClient.getRoutePlanner().determineRoute(target, new HttpHead(uri), new BasicHttpContext());
+		} catch (HttpException e) {
+			throw new IllegalArgumentException("No route to " + url, e);
+		}
+		int count = Math.min(connections, connectionManager.getMaxPerRoute(route));
+		long openedBefore = connectionsOpened.get();
+		long leaseTimeoutMillis = org.apache.http.client.params.HttpClientParams
+				.getConnectionManagerTimeout(httpClient.getParams());
+		final CountDownLatch allOpened = new CountDownLatch(count);
+		List<Future<?>> leases = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			leases.add(ApiExecutors.exchanges().submit(() -> {
+				org.apache.http.conn.ManagedClientConnection connection = null;
+				try {
+					connection = connectionManager.requestConnection(route, null).getConnection(leaseTimeoutMillis,
+							TimeUnit.MILLISECONDS);
+					if (!connection.isOpen()) {
+						connection.open(route, new BasicHttpContext(), httpClient.getParams());
+					}
+					connection.markReusable();
+				} catch (Exception e) {
+					System.out.println("API warm-up connection to " + target + " failed: " + e);
+				} finally {
+					allOpened.countDown();
+				}
+				try {
+					allOpened.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					if (connection != null) {
+						connectionManager.releaseConnection(connection, keepAliveMillis, TimeUnit.MILLISECONDS);
+					}
+				}
+			}));
+		}
+		for (Future<?> lease : leases) {
+			try {
+				lease.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (ExecutionException e) {
+				// already logged by the lease itself
+			}
+		}
+		return (int) (connectionsOpened.get() - openedBefore);
+	}
+
+	/**
+	 * @return Stats - A point-in-time snapshot of pool occupancy and connection
+	 *         reuse since start-up.
+	 */
+	public Stats getStats() {
+		PoolStats total = connectionManager.getTotalStats();
+		return new Stats(total.getLeased(), total.getAvailable(), total.getPending(), total.getMax(),
+				connectionsOpened.get(), requestsExecuted.get());
+	}
+
+	/**
+	 * @description A TLS session can only be resumed from the cache of the
+	 *              {@link SSLContext} that negotiated it. This one keeps up to
+	 *              api.tls.sessionCacheSize sessions for
+	 *              api.tls.sessionTimeoutSeconds, so a connection recycled by
+	 *              idle eviction or the pool TTL usually reconnects with an
+	 *              abbreviated handshake (session ID or TLS 1.3 ticket) instead
+	 *              of a full one.
+	 */
+	private static SSLContext createSslContext() {
+		try {
+			SSLContext context = SSLContext.getInstance("TLS");
+			context.init(null, null, null);
+			SSLSessionContext sessions = context.getClientSessionContext();
+			sessions.setSessionCacheSize(ConfigManager.getIntProperty("api.tls.sessionCacheSize", 1000));
+			sessions.setSessionTimeout(ConfigManager.getIntProperty("api.tls.sessionTimeoutSeconds", 86400));
+			return context;
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Could not initialise TLS", e);
+		}
+	}
+
+	/**
+	 * Counts full and resumed TLS handshakes (tls handshakes.full /
+	 * handshakes.resumed) and records their latency in the "tls handshake"
+	 * histogram. A handshake resumed a cached session when that session is
+	 * older than the handshake itself.
+	 */
+	@SuppressWarnings("deprecation")
+	private static final class HandshakeMeteringSocketFactory extends org.apache.http.conn.ssl.SSLSocketFactory {
+
+		HandshakeMeteringSocketFactory(SSLContext sslContext) {
+			super(sslContext, org.apache.http.conn.ssl.SSLSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER);
+		}
+
+		@Override
+		public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+				throws IOException {
+			long startMillis = System.currentTimeMillis();
+			long start = System.nanoTime();
+			Socket layered = super.createLayeredSocket(socket, target, port, context);
+			ApiMetrics.histogram("tls", "handshake").record(System.nanoTime() - start);
+			boolean resumed = ((SSLSocket) layered).getSession().getCreationTime() < startMillis;
+			ApiMetrics.increment("tls", resumed ? "handshakes.resumed" : "handshakes.full");
+			return layered;
+		}
+	}
+
+	private static final class WireCountingEntity extends HttpEntityWrapper {
+
+		private final WireCounter wire;
+
+		WireCountingEntity(HttpEntity entity, WireCounter wire) {
+			super(entity);
+			this.wire = wire;
+		}
+
+		@Override
+		public InputStream getContent() throws IOException {
+			return wire.counting(super.getContent());
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			try (InputStream in = getContent()) {
+				byte[] buffer = new byte[8192];
+				for (int read; (read = in.read(buffer)) >= 0;) {
+					out.write(buffer, 0, read);
+				}
+			}
+		}
+	}
+
+	public void shutdown() {
+		evictor.shutdownNow();
+		connectionManager.shutdown();
+	}
+
+	public static final class Stats {
+		private final int leased;
+		private final int available;
+		private final int pending;
+		private final int max;
+		private final long connectionsOpened;
+		private final long requestsExecuted;
+
+		Stats(int leased, int available, int pending, int max, long connectionsOpened, long requestsExecuted) {
+			this.leased = leased;
+			this.available = available;
+			this.pending = pending;
+			this.max = max;
+			this.connectionsOpened = connectionsOpened;
+			this.requestsExecuted = requestsExecuted;
+		}
+
+		public int getLeased() {
+			return leased;
+		}
+
+		public int getAvailable() {
+			return available;
+		}
+
+		public int getPending() {
+			return pending;
+		}
+
+		public int getMax() {
+			return max;
+		}
+
+		public long getConnectionsOpened() {
+			return connectionsOpened;
+		}
+
+		public long getRequestsExecuted() {
+			return requestsExecuted;
+		}
+
+		// Close to 0 once the pool is warm; 1.0 means no connection was ever reused
+		public double getHandshakesPerRequest() {
+			return requestsExecuted == 0 ? 0 : (double) connectionsOpened / requestsExecuted;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"leased=%d, available=%d, pending=%d, max=%d, connectionsOpened=%d, requests=%d, handshakesPerRequest=%.3f",
+					leased, available, pending, max, connectionsOpened, requestsExecuted, getHandshakesPerRequest());
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package rest;
+
+/**
+ * Thrown when an exchange did not complete within its endpoint's deadline.
+ * The request has been aborted by then.
+ */
+@SuppressWarnings("serial")
+public class DeadlineExceededException extends RuntimeException {
+
+	public DeadlineExceededException(ApiCall call, long deadlineMillis) {
+		super(call + " did not complete within its " + deadlineMillis + " ms deadline");
+	}
+}
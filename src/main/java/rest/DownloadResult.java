@@ -0,0 +1,76 @@
+package rest;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of a streamed download: where the body went, how much of it this
+ * call received and the SHA-256 of the complete file.
+ */
+public final class DownloadResult {
+
+	private final int statusCode;
+	private final Path file;
+	private final long bytesReceived;
+	private final long size;
+	private final String sha256;
+	private final boolean resumed;
+	private final long elapsedNanos;
+
+	DownloadResult(int statusCode, Path file, long bytesReceived, long size, String sha256, boolean resumed,
+			long elapsedNanos) {
+		this.statusCode = statusCode;
+		this.file = file;
+		this.bytesReceived = bytesReceived;
+		this.size = size;
+		this.sha256 = sha256;
+		this.resumed = resumed;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public int statusCode() {
+		return statusCode;
+	}
+
+	public Path file() {
+		return file;
+	}
+
+	/**
+	 * @return long - Bytes written by this call; less than {@link #size()} when
+	 *         an earlier partial download was resumed.
+	 */
+	public long bytesReceived() {
+		return bytesReceived;
+	}
+
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * @return String - Lower-case hex SHA-256 of the whole file, or null if
+	 *         nothing was downloaded (non-2xx status).
+	 */
+	public String sha256() {
+		return sha256;
+	}
+
+	public boolean resumed() {
+		return resumed;
+	}
+
+	public long elapsedMillis() {
+		return elapsedNanos / 1_000_000;
+	}
+
+	public double bytesPerSecond() {
+		return elapsedNanos == 0 ? 0 : bytesReceived * 1_000_000_000.0 / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("status=%d, %s: %d of %d bytes in %d ms (%.2f MB/s)%s, sha256=%s", statusCode, file,
+				bytesReceived, size, elapsedMillis(), bytesPerSecond() / (1024 * 1024), resumed ? ", resumed" : "",
+				sha256);
+	}
+}
@@ -0,0 +1,69 @@
+package rest;
+
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * Per-exchange connect/read timeouts and abort handle, handed from
+ * {@link TimeoutInterceptor} to the transports through a thread-local.
+ *
+ * @description The pooled Apache client is shared, so its timeouts cannot be
+ *              changed per request through RestAssured. Instead the thread that
+ *              runs the exchange binds an instance here; {@link ConnectionPool}
+ *              reads it when it opens a socket and when the request is about to
+ *              be written, and registers the request so that another thread
+ *              can abort it once the deadline has passed.
+ */
+final class ExchangeTimeouts {
+
+	private static final ThreadLocal<ExchangeTimeouts> CURRENT = new ThreadLocal<>();
+
+	private final int connectMillis;
+	private final int readMillis;
+	private HttpUriRequest request;
+	private boolean aborted;
+
+	ExchangeTimeouts(int connectMillis, int readMillis) {
+		this.connectMillis = connectMillis;
+		this.readMillis = readMillis;
+	}
+
+	static ExchangeTimeouts current() {
+		return CURRENT.get();
+	}
+
+	void bind() {
+		CURRENT.set(this);
+	}
+
+	static void unbind() {
+		CURRENT.remove();
+	}
+
+	// 0 = use the pool default
+	int connectMillis() {
+		return connectMillis;
+	}
+
+	int readMillis() {
+		return readMillis;
+	}
+
+	synchronized void attach(HttpUriRequest request) {
+		this.request = request;
+		if (aborted) {
+			request.abort();
+		}
+	}
+
+	/**
+	 * Aborts the in-flight request, which closes its socket and returns the
+	 * connection's slot to the pool. A request attached later is aborted
+	 * straight away.
+	 */
+	synchronized void abort() {
+		aborted = true;
+		if (request != null) {
+			request.abort();
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.LongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.restassured.response.Response;
+
+/**
+ * Writes a streamed response body to a file, hashing it on the way, and picks
+ * up an interrupted download where it stopped.
+ *
+ * @description The body is read into one buffer of bufferBytes, which is only
+ *              written to the FileChannel once it is full, so the disk sees
+ *              large sequential writes whatever the socket read sizes are.
+ *              SHA-256 is updated from the same buffer. If the target already
+ *              holds part of the file, it is hashed first and the rest is
+ *              requested with {@code Range: bytes=<size>-}: a 206 is appended
+ *              after checking its Content-Range, a 200 (range ignored) replaces
+ *              the file, and a 416 means the file is already complete, unless
+ *              the server reports a different size, in which case the partial
+ *              file is discarded and fetched again. A body cut short, or one
+ *              whose connection fails, is left on disk up to the last byte
+ *              received for the next attempt to resume.
+ */
+final class FileDownload {
+
+	private static final Pattern CONTENT_RANGE = Pattern.compile("bytes\\s+(\\d+)-\\d+/(\\d+|\\*)");
+	private static final Pattern UNSATISFIED_RANGE = Pattern.compile("bytes\\s+\\*/(\\d+)");
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private FileDownload() {
+	}
+
+	/**
+	 * @param send - Sends the request for the body from the given offset on (0
+	 *             for the whole body) and returns the unread, streamed response.
+	 */
+	static DownloadResult fetch(Path target, boolean resume, int bufferBytes, LongFunction<Response> send)
+			throws IOException {
+		long offset = resume && Files.isRegularFile(target) ? Files.size(target) : 0;
+		long start = System.nanoTime();
+		Response response = send.apply(offset);
+		int status = response.statusCode();
+
+		if (status == 416 && offset > 0) {
+			response.asByteArray();
+			if (offset == unsatisfiedRangeLength(response)) {
+				return new DownloadResult(status, target, 0, offset, hex(digestExisting(target, offset, bufferBytes)),
+						true, System.nanoTime() - start);
+			}
+			Files.delete(target);
+			return fetch(target, false, bufferBytes, send);
+		}
+		if (status != 200 && status != 206) {
+			response.asByteArray();
+			return new DownloadResult(status, target, 0, Files.isRegularFile(target) ? Files.size(target) : 0, null,
+					false, System.nanoTime() - start);
+		}
+		if (status == 206 && contentRangeStart(response) != offset) {
+			response.asByteArray();
+			throw new IOException("Content-Range " + response.getHeader("Content-Range") + " does not resume "
+					+ target + " at byte " + offset);
+		}
+
+		long from = status == 206 ? offset : 0;
+		long expected = contentLength(response);
+		MessageDigest digest = sha256();
+		long received = 0;
+		try (FileChannel file = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE); InputStream body = response.asInputStream()) {
+			byte[] chunk = new byte[bufferBytes];
+			ByteBuffer buffer = ByteBuffer.wrap(chunk);
+			digest(file, from, buffer, digest);
+			file.truncate(from);
+			file.position(from);
+
+			int filled = 0;
+			try {
+				int read;
+				while ((read = body.read(chunk, filled, chunk.length - filled)) >= 0) {
+					filled += read;
+					if (filled == chunk.length) {
+						filled = 0;
+						received += write(file, buffer, chunk.length, digest);
+					}
+				}
+			} finally {
+				// Also when the connection fails, so that a resume starts after every byte received
+				received += write(file, buffer, filled, digest);
+			}
+		}
+		if (expected >= 0 && received != expected) {
+			throw new IOException("Download of " + target + " ended after " + received + " of " + expected
+					+ " bytes; call again to resume");
+		}
+		return new DownloadResult(status, target, received, from + received, hex(digest.digest()), from > 0,
+				System.nanoTime() - start);
+	}
+
+	private static long write(FileChannel file, ByteBuffer buffer, int length, MessageDigest digest)
+			throws IOException {
+		digest.update(buffer.array(), 0, length);
+		buffer.clear().limit(length);
+		while (buffer.hasRemaining()) {
+			file.write(buffer);
+		}
+		buffer.clear();
+		return length;
+	}
+
+	private static byte[] digestExisting(Path target, long length, int bufferBytes) throws IOException {
+		MessageDigest digest = sha256();
+		try (FileChannel file = FileChannel.open(target, StandardOpenOption.READ)) {
+			digest(file, length, ByteBuffer.allocate(bufferBytes), digest);
+		}
+		return digest.digest();
+	}
+
+	// Hashes the first length bytes of the file
+	private static void digest(FileChannel file, long length, ByteBuffer buffer, MessageDigest digest)
+			throws IOException {
+		long position = 0;
+		while (position < length) {
+			buffer.clear().limit((int) Math.min(buffer.capacity(), length - position));
+			int read = file.read(buffer, position);
+			if (read < 0) {
+				throw new IOException("File shrank while it was being hashed");
+			}
+			digest.update(buffer.array(), 0, read);
+			position += read;
+		}
+		buffer.clear();
+	}
+
+	private static long contentRangeStart(Response response) {
+		String range = response.getHeader("Content-Range");
+		Matcher matcher = range == null ? null : CONTENT_RANGE.matcher(range.trim());
+		return matcher != null && matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+	}
+
+	private static long unsatisfiedRangeLength(Response response) {
+		String range = response.getHeader("Content-Range");
+		Matcher matcher = range == null ? null : UNSATISFIED_RANGE.matcher(range.trim());
+		return matcher != null && matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+	}
+
+	private static long contentLength(Response response) {
+		String length = response.getHeader("Content-Length");
+		try {
+			return length == null ? -1 : Long.parseLong(length.trim());
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String hex(byte[] bytes) {
+		char[] hex = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			hex[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+			hex[2 * i + 1] = HEX[bytes[i] & 0xF];
+		}
+		return new String(hex);
+	}
+}
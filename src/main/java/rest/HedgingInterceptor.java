@@ -0,0 +1,113 @@
+package rest;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import restConfig.ConfigManager;
+
+/**
+ * Sends a backup request for slow idempotent GETs and returns whichever
+ * answer arrives first.
+ *
+ * @description The primary exchange runs on {@link ApiExecutors#exchanges()}.
+ *              If it has not answered within the endpoint's
+ *              api.hedging.percentile latency (taken from the exchanges seen so
+ *              far, never below api.hedging.minDelayMs, and
+ *              api.hedging.delayMs until api.hedging.minSamples exist), an
+ *              identical hedge request is sent and the first successful
+ *              response wins. The slower exchange is left to finish in the
+ *              background and release its connection. Off unless
+ *              api.hedging.enabled=true. Counts hedge.fired and hedge.won per
+ *              endpoint.
+ */
+public class HedgingInterceptor implements ApiInterceptor {
+
+	private final boolean enabled = ConfigManager.getBooleanProperty("api.hedging.enabled", false);
+	private final double percentile = Double.parseDouble(ConfigManager.getProperty("api.hedging.percentile", "95"));
+	private final long minDelayMillis = ConfigManager.getLongProperty("api.hedging.minDelayMs", 50);
+	private final long defaultDelayMillis = ConfigManager.getLongProperty("api.hedging.delayMs", 500);
+	private final long minSamples = ConfigManager.getLongProperty("api.hedging.minSamples", 20);
+
+	@Override
+	public Response intercept(ApiCall call, Chain chain) {
+		// A streamed body cannot be abandoned by the losing exchange without holding its connection
+		if (!enabled || call.method() != Method.GET || !call.endpoint().isIdempotent() || call.isStreaming()) {
+			return chain.proceed(call);
+		}
+
+		String scope = call.endpoint().name();
+		LatencyHistogram exchanges = ApiMetrics.histogram(scope, "exchange");
+		CompletableFuture<Response> primary = send(call, chain, exchanges);
+		try {
+			return primary.get(hedgeDelayMillis(exchanges), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			// primary is slow: fall through and hedge
+		} catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(call + " was interrupted", e);
+		}
+
+		ApiMetrics.increment(scope, "hedge.fired");
+		CompletableFuture<Response> hedge = send(call, chain, exchanges);
+		CompletableFuture<CompletableFuture<Response>> first = new CompletableFuture<>();
+		AtomicInteger failures = new AtomicInteger();
+		for (CompletableFuture<Response> attempt : Arrays.asList(primary, hedge)) {
+			attempt.whenComplete((response, error) -> {
+				if (error == null) {
+					first.complete(attempt);
+				} else if (failures.incrementAndGet() == 2) {
+					first.completeExceptionally(error);
+				}
+			});
+		}
+		CompletableFuture<Response> winner;
+		try {
+			winner = first.join();
+		} catch (CompletionException e) {
+			throw unwrap(e.getCause());
+		}
+		// Counted before returning so that the caller already sees it
+		if (winner == hedge) {
+			ApiMetrics.increment(scope, "hedge.won");
+		}
+		return winner.join();
+	}
+
+	private static CompletableFuture<Response> send(ApiCall call, Chain chain, LatencyHistogram exchanges) {
+		return CompletableFuture.supplyAsync(() -> {
+			long start = System.nanoTime();
+			Response response = chain.proceed(call);
+			exchanges.record(System.nanoTime() - start);
+			return response;
+		}, ApiExecutors.exchanges());
+	}
+
+	private long hedgeDelayMillis(LatencyHistogram exchanges) {
+		if (exchanges.count() < minSamples) {
+			return defaultDelayMillis;
+		}
+		return Math.max(minDelayMillis, exchanges.percentileMillis(percentile));
+	}
+
+	private static RuntimeException unwrap(Throwable cause) {
+		if (cause instanceof CompletionException && cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return new IllegalStateException(cause);
+	}
+}
@@ -0,0 +1,55 @@
+package rest;
+
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import restConfig.ConfigManager;
+
+/**
+ * The wire-level backend behind {@link ApiUtil}.
+ *
+ * @description ApiUtil prepares a {@link RequestSpecification} (base URI,
+ *              headers, body) and hands it to a transport to actually send.
+ *              The backend is chosen by api.transport in config.properties:
+ *              {@code restassured} (default, Apache client with the shared
+ *              {@link ConnectionPool}), {@code jdk} ({@link JdkHttpTransport},
+ *              java.net.http with HTTP/2 multiplexing), or the fully qualified
+ *              name of any class implementing this interface with a public
+ *              no-arg constructor.
+ */
+public interface HttpTransport {
+
+	/**
+	 * @param method  - The HTTP verb.
+	 * @param path    - The endpoint, relative to the spec's base URI.
+	 * @param request - The prepared request. Implementations must not mutate
+	 *                it, so it can be sent again.
+	 * @return Response - A fully read RestAssured response.
+	 */
+	Response execute(Method method, String path, RequestSpecification request);
+
+	/**
+	 * Like {@link #execute(Method, String, RequestSpecification)} but the body
+	 * may be left unread, to be consumed once through
+	 * {@link Response#asInputStream()}; closing that stream releases the
+	 * connection. Transports that cannot stream return a fully read response.
+	 */
+	default Response stream(Method method, String path, RequestSpecification request) {
+		return execute(method, path, request);
+	}
+
+	static HttpTransport fromConfig() {
+		String name = ConfigManager.getProperty("api.transport", "restassured");
+		if (name.equalsIgnoreCase("restassured")) {
+			return new RestAssuredTransport();
+		}
+		if (name.equalsIgnoreCase("jdk")) {
+			return new JdkHttpTransport();
+		}
+		try {
+			return (HttpTransport) Class.forName(name).getConstructor().newInstance();
+		} catch (ReflectiveOperationException | ClassCastException e) {
+			throw new IllegalStateException("Unknown api.transport: " + name, e);
+		}
+	}
+}
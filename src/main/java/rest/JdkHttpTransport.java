@@ -0,0 +1,253 @@
+package rest;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import io.restassured.authentication.NoAuthScheme;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+import restConfig.ConfigManager;
+
+/**
+ * Sends requests with {@link java.net.http.HttpClient}.
+ *
+ * @description One client is shared by every thread. It negotiates HTTP/2
+ *              over TLS (api.transport.http2=true), so concurrent requests to
+ *              the same host are multiplexed as streams over a single
+ *              connection instead of each holding a pooled socket. Servers
+ *              that only speak HTTP/1.1 are handled transparently by the
+ *              client's own connection pool. Responses are fully read and
+ *              returned as ordinary RestAssured {@link Response}s.
+ *              <p>
+ *              Only what ApiUtil's specs use is translated: base URI and path,
+ *              headers, content type and a String, byte[], File or InputStream
+ *              body (anything else RestAssured would have serialized on
+ *              {@code body(...)} already). RestAssured filters (including
+ *              api.log.errors), cookies, query/form/path parameters, multi-part
+ *              specs, proxies and authentication schemes are not; a spec that
+ *              carries any of them is rejected with an
+ *              {@link IllegalArgumentException} rather than sent without them.
+ *              Since api.log.errors would put a filter on every spec, the
+ *              transport refuses to start with it. java.net.http needs a Java
+ *              11+ runtime, whatever the build's Java 8 target says.
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+	// Headers java.net.http manages itself and refuses to accept from callers
+	private static final TreeSet<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+	static {
+		RESTRICTED_HEADERS.addAll(Arrays.asList("Connection", "Content-Length", "Expect", "Host", "Upgrade"));
+	}
+
+	private final HttpClient client;
+	private final Duration readTimeout;
+	private final boolean compression = ConfigManager.getBooleanProperty("api.compression.enabled", true);
+
+	public JdkHttpTransport() {
+		if (ConfigManager.getBooleanProperty("api.log.errors", false)) {
+			throw new IllegalStateException("api.log.errors=true adds a RestAssured filter to every request, which "
+					+ "api.transport=jdk cannot apply; turn one of them off");
+		}
+		boolean http2 = ConfigManager.getBooleanProperty("api.transport.http2", true);
+		client = HttpClient.newBuilder().version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofMillis(ConfigManager.getIntProperty("api.timeout.connectMs", 10000)))
+				.sslContext(ConnectionPool.getInstance().sslContext())
+				.followRedirects(HttpClient.Redirect.NORMAL).build();
+		readTimeout = Duration.ofMillis(ConfigManager.getIntProperty("api.timeout.readMs", 60000));
+	}
+
+	@Override
+	public Response execute(Method method, String path, RequestSpecification request) {
+		return send(method, path, request, false);
+	}
+
+	@Override
+	public Response stream(Method method, String path, RequestSpecification request) {
+		return send(method, path, request, true);
+	}
+
+	private Response send(Method method, String path, RequestSpecification request, boolean streaming) {
+		FilterableRequestSpecification spec = (FilterableRequestSpecification) request;
+		rejectUnsupported(spec, method, path);
+		// The client's connect timeout is fixed when it is built; only the response
+		// timeout can be set per request
+		ExchangeTimeouts timeouts = ExchangeTimeouts.current();
+		Duration timeout = timeouts != null && timeouts.readMillis() > 0 ? Duration.ofMillis(timeouts.readMillis())
+				: readTimeout;
+		HttpRequest.Builder builder = HttpRequest.newBuilder(resolve(spec, path)).timeout(timeout)
+				.method(method.name(), bodyOf(spec));
+		for (Header header : spec.getHeaders()) {
+			if (!RESTRICTED_HEADERS.contains(header.getName())) {
+				builder.header(header.getName(), header.getValue());
+			}
+		}
+		if (!spec.getHeaders().hasHeaderWithName("Content-Type") && spec.getContentType() != null) {
+			builder.header("Content-Type", spec.getContentType());
+		}
+		if (compression && !spec.getHeaders().hasHeaderWithName("Accept-Encoding")) {
+			builder.header("Accept-Encoding", "gzip,deflate");
+		}
+
+		try {
+			return toResponse(client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream()), streaming);
+		} catch (IOException e) {
+			throw new UncheckedIOException(method + " " + path + " failed", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(method + " " + path + " was interrupted", e);
+		}
+	}
+
+	private static void rejectUnsupported(FilterableRequestSpecification spec, Method method, String path) {
+		List<String> unsupported = new ArrayList<>();
+		if (!spec.getDefinedFilters().isEmpty()) {
+			unsupported.add("filters");
+		}
+		if (spec.getCookies().exist()) {
+			unsupported.add("cookies");
+		}
+		if (!spec.getQueryParams().isEmpty() || !spec.getRequestParams().isEmpty()) {
+			unsupported.add("query parameters");
+		}
+		if (!spec.getFormParams().isEmpty()) {
+			unsupported.add("form parameters");
+		}
+		if (!spec.getPathParams().isEmpty() || !spec.getUnnamedPathParamValues().isEmpty()) {
+			unsupported.add("path parameters");
+		}
+		if (!spec.getMultiPartParams().isEmpty()) {
+			unsupported.add("multi-part specs");
+		}
+		if (spec.getProxySpecification() != null) {
+			unsupported.add("a proxy");
+		}
+		if (!(spec.getAuthenticationScheme() instanceof NoAuthScheme)) {
+			unsupported.add("an authentication scheme");
+		}
+		if (!unsupported.isEmpty()) {
+			throw new IllegalArgumentException(method + " " + path + ": api.transport=jdk does not support "
+					+ String.join(", ", unsupported) + "; send it with api.transport=restassured");
+		}
+	}
+
+	private static URI resolve(FilterableRequestSpecification spec, String path) {
+		String basePath = spec.getBasePath() == null ? "" : spec.getBasePath();
+		return URI.create(UriTemplate.quoteIllegalCharacters(spec.getBaseUri() + basePath + path));
+	}
+
+	private static HttpRequest.BodyPublisher bodyOf(FilterableRequestSpecification spec) {
+		Object body = spec.getBody();
+		if (body == null) {
+			return HttpRequest.BodyPublishers.noBody();
+		}
+		if (body instanceof byte[]) {
+			return HttpRequest.BodyPublishers.ofByteArray((byte[]) body);
+		}
+		if (body instanceof MultipartFileStream) {
+			// Known length, so it goes out with Content-Length rather than chunked
+			MultipartFileStream stream = (MultipartFileStream) body;
+			return HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(() -> stream),
+					stream.length());
+		}
+		if (body instanceof InputStream) {
+			return HttpRequest.BodyPublishers.ofInputStream(() -> (InputStream) body);
+		}
+		if (body instanceof File) {
+			try {
+				return HttpRequest.BodyPublishers.ofFile(((File) body).toPath());
+			} catch (FileNotFoundException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		if (body instanceof String) {
+			return HttpRequest.BodyPublishers.ofString((String) body, StandardCharsets.UTF_8);
+		}
+		throw new IllegalArgumentException("Cannot send a " + body.getClass().getName()
+				+ " body; serialize it first, e.g. with JsonPayloads.toBytes");
+	}
+
+	/**
+	 * @description java.net.http does no content decoding, so gzip and deflate
+	 *              bodies are inflated here while they are read and the
+	 *              Content-Encoding and Content-Length headers that described the
+	 *              encoded form are dropped. The encoded size is reported to the
+	 *              {@link WireCounter} of the exchange, and the decoded body goes
+	 *              through the {@link ResponseBodyStore}, unless the response is
+	 *              streamed, in which case it is left unread for the caller.
+	 */
+	static Response toResponse(HttpResponse<InputStream> httpResponse, boolean streaming) throws IOException {
+		WireCounter wire = WireCounter.current();
+		PushbackInputStream body = new PushbackInputStream(
+				wire == null ? httpResponse.body() : wire.counting(httpResponse.body()), 2);
+		String encoding = httpResponse.headers().firstValue("Content-Encoding").orElse("identity").trim();
+		boolean decoded = !"identity".equalsIgnoreCase(encoding) && !isEmpty(body);
+
+		List<Header> headers = new ArrayList<>();
+		for (Map.Entry<String, List<String>> entry : httpResponse.headers().map().entrySet()) {
+			if (decoded && (entry.getKey().equalsIgnoreCase("Content-Encoding")
+					|| entry.getKey().equalsIgnoreCase("Content-Length"))) {
+				continue;
+			}
+			for (String value : entry.getValue()) {
+				headers.add(new Header(entry.getKey(), value));
+			}
+		}
+		String protocol = httpResponse.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+		ResponseBuilder builder = new ResponseBuilder().setStatusCode(httpResponse.statusCode())
+				.setStatusLine(protocol + " " + httpResponse.statusCode()).setHeaders(new Headers(headers));
+		httpResponse.headers().firstValue("Content-Type").ifPresent(builder::setContentType);
+		InputStream content = decoded ? decode(encoding, body) : body;
+		return streaming ? builder.setBody(content).build() : ResponseBodyStore.build(builder, content);
+	}
+
+	private static boolean isEmpty(PushbackInputStream body) throws IOException {
+		int first = body.read();
+		if (first < 0) {
+			return true;
+		}
+		body.unread(first);
+		return false;
+	}
+
+	private static InputStream decode(String encoding, PushbackInputStream body) throws IOException {
+		if ("gzip".equalsIgnoreCase(encoding) || "x-gzip".equalsIgnoreCase(encoding)) {
+			return new GZIPInputStream(body);
+		}
+		if ("deflate".equalsIgnoreCase(encoding)) {
+			// Meant to be zlib-wrapped (RFC 1950), but some servers send a raw deflate stream
+			byte[] header = new byte[2];
+			int read = body.read(header);
+			if (read > 0) {
+				body.unread(header, 0, read);
+			}
+			boolean zlib = read == 2 && (header[0] & 0x0F) == 8
+					&& ((header[0] & 0xFF) << 8 | (header[1] & 0xFF)) % 31 == 0;
+			return new InflaterInputStream(body, new Inflater(!zlib));
+		}
+		throw new IOException("Unsupported Content-Encoding: " + encoding);
+	}
+}
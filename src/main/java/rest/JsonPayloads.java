@@ -0,0 +1,57 @@
+package rest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+
+/**
+ * Serializes typed request objects (see the apiRequests package) into the
+ * JSON bodies HealthApp expects.
+ *
+ * @description Properties are written in UpperCamelCase ({@code firstName}
+ *              becomes {@code FirstName}) and null properties are left out.
+ *              One {@link ObjectWriter} is built per payload class and reused;
+ *              writers are immutable and thread-safe, so the serializers are
+ *              looked up once instead of on every request. Strings are escaped
+ *              by Jackson, so quotes or backslashes in test data can no longer
+ *              produce a malformed body.
+ */
+public final class JsonPayloads {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper()
+			.setPropertyNamingStrategy(PropertyNamingStrategy.UPPER_CAMEL_CASE)
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+	private static final Map<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+	private JsonPayloads() {
+	}
+
+	private static ObjectWriter writerFor(Class<?> type) {
+		return WRITERS.computeIfAbsent(type, MAPPER::writerFor);
+	}
+
+	/**
+	 * @return byte[] - The UTF-8 JSON body, ready to be sent as is.
+	 */
+	public static byte[] toBytes(Object payload) {
+		try {
+			// Goes through Jackson's recycled buffers rather than an intermediate String
+			return writerFor(payload.getClass()).writeValueAsBytes(payload);
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Could not serialize " + payload.getClass().getSimpleName(), e);
+		}
+	}
+
+	static Integer toInteger(String value) {
+		return value == null || value.trim().isEmpty() ? null : Integer.valueOf(value.trim());
+	}
+
+	static Boolean toBoolean(String value) {
+		return value == null || value.trim().isEmpty() ? null : Boolean.valueOf(value.trim());
+	}
+}
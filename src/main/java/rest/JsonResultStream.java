@@ -0,0 +1,76 @@
+package rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads a HealthApp envelope such as {@code {"Status":"OK","Results":[...]}}
+ * token by token, handing each element of one array field to a consumer as
+ * soon as it has been parsed.
+ *
+ * @description Only the element being parsed is ever held in memory, so a
+ *              Results array of any length is processed in constant space.
+ *              Other top-level scalar fields (Status, ErrorMessage, ...) are
+ *              collected and returned; nested objects outside the array are
+ *              skipped. A single object in place of the array is treated as a
+ *              one-element array.
+ */
+public final class JsonResultStream {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final JsonFactory FACTORY = MAPPER.getFactory();
+
+	private JsonResultStream() {
+	}
+
+	/**
+	 * @param body       - The JSON body; it is read to the end and closed.
+	 * @param arrayField - Name of the top-level field to stream, e.g. Results.
+	 * @param type       - Type each element is bound to, e.g.
+	 *                   {@code new TypeReference<Map<String, Object>>() {}}.
+	 * @param consumer   - Receives the elements in document order.
+	 * @return StreamedResults - Number of elements and the other top-level
+	 *         scalar fields. The status code is left at 0 for the caller to
+	 *         fill in.
+	 */
+	public static <T> StreamedResults forEach(InputStream body, String arrayField, TypeReference<T> type,
+			Consumer<? super T> consumer) {
+		Map<String, Object> fields = new LinkedHashMap<>();
+		long count = 0;
+		try (JsonParser parser = FACTORY.createParser(body)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new IllegalStateException("Expected a JSON object at " + parser.getCurrentLocation());
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+				if (name.equals(arrayField) && value == JsonToken.START_ARRAY) {
+					while (parser.nextToken() != JsonToken.END_ARRAY) {
+						consumer.accept(parser.<T>readValueAs(type));
+						count++;
+					}
+				} else if (name.equals(arrayField) && value == JsonToken.START_OBJECT) {
+					consumer.accept(parser.<T>readValueAs(type));
+					count++;
+				} else if (value.isScalarValue()) {
+					fields.put(name, value == JsonToken.VALUE_NULL ? null : parser.readValueAs(Object.class));
+				} else {
+					parser.skipChildren();
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not stream " + arrayField, e);
+		}
+		return new StreamedResults(0, fields, count);
+	}
+}
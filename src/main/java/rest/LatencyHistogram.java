@@ -0,0 +1,69 @@
+package rest;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets (~20% wide, from
+ * 100 microseconds up to 10 minutes). Percentiles are reported as the upper
+ * bound of the bucket they fall in, which is accurate to within one bucket.
+ */
+public final class LatencyHistogram {
+
+	private static final long[] BOUNDS_MICROS;
+
+	static {
+		long[] bounds = new long[128];
+		int count = 0;
+		for (double bound = 100; bound < TimeUnit.MINUTES.toMicros(10); bound *= 1.2) {
+			bounds[count++] = (long) bound;
+		}
+		bounds[count++] = Long.MAX_VALUE;
+		BOUNDS_MICROS = Arrays.copyOf(bounds, count);
+	}
+
+	private final AtomicLongArray counts = new AtomicLongArray(BOUNDS_MICROS.length);
+
+	public void record(long nanos) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+		int index = Arrays.binarySearch(BOUNDS_MICROS, micros);
+		counts.incrementAndGet(index >= 0 ? index : -index - 1);
+	}
+
+	public long count() {
+		long count = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			count += counts.get(i);
+		}
+		return count;
+	}
+
+	/**
+	 * @param percentile - Between 0 and 100.
+	 * @return long - The latency in milliseconds at or below which the given
+	 *         share of samples fall, or -1 when nothing has been recorded.
+	 */
+	public long percentileMillis(double percentile) {
+		long count = count();
+		if (count == 0) {
+			return -1;
+		}
+		long rank = (long) Math.ceil(count * percentile / 100.0);
+		long seen = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			seen += counts.get(i);
+			if (seen >= rank && seen > 0) {
+				return i == BOUNDS_MICROS.length - 1 ? TimeUnit.MINUTES.toMillis(10)
+						: Math.max(1, TimeUnit.MICROSECONDS.toMillis(BOUNDS_MICROS[i]));
+			}
+		}
+		return TimeUnit.MINUTES.toMillis(10);
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + count() + ", p50=" + percentileMillis(50) + "ms, p95=" + percentileMillis(95) + "ms, p99="
+				+ percentileMillis(99) + "ms";
+	}
+}
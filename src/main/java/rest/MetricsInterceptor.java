@@ -0,0 +1,31 @@
+package rest;
+
+import java.util.concurrent.TimeUnit;
+
+import io.restassured.response.Response;
+
+/**
+ * Records calls, status classes, failures and latency (total and histogram)
+ * per endpoint.
+ */
+public class MetricsInterceptor implements ApiInterceptor {
+
+	@Override
+	public Response intercept(ApiCall call, Chain chain) {
+		String scope = call.endpoint().name();
+		long start = System.nanoTime();
+		try {
+			Response response = chain.proceed(call);
+			ApiMetrics.increment(scope, "status." + response.statusCode() / 100 + "xx");
+			return response;
+		} catch (RuntimeException e) {
+			ApiMetrics.increment(scope, "failures");
+			throw e;
+		} finally {
+			ApiMetrics.increment(scope, "calls");
+			long elapsed = System.nanoTime() - start;
+			ApiMetrics.add(scope, "latency.totalMs", TimeUnit.NANOSECONDS.toMillis(elapsed));
+			ApiMetrics.histogram(scope, "latency").record(elapsed);
+		}
+	}
+}
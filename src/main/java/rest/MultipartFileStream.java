@@ -0,0 +1,136 @@
+package rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * A {@code multipart/form-data} request body with a single file part, read
+ * from disk as it is sent.
+ *
+ * @description This is chunked streaming, not a zero-copy transfer: the
+ *              transport pulls the body through {@link #read(byte[], int, int)}
+ *              and every file byte is copied once from a direct buffer into the
+ *              transport's array. The part headers and closing boundary are
+ *              small byte arrays; the file itself is read through a
+ *              {@link FileChannel} in chunkBytes blocks into one reusable
+ *              direct buffer (so the channel needs no temporary buffer of its
+ *              own), and heap use does not depend on the file size. Counts the bytes handed to the
+ *              transport and the time between the first and the last read,
+ *              which is the upload throughput. One-shot: it cannot be rewound
+ *              for a second attempt.
+ */
+final class MultipartFileStream extends InputStream {
+
+	private final String boundary = "----HealthAppBoundary" + UUID.randomUUID().toString().replace("-", "");
+	private final FileChannel channel;
+	private final byte[] preamble;
+	private final byte[] epilogue;
+	private final ByteBuffer chunk;
+	private final byte[] single = new byte[1];
+	private final long length;
+
+	private int preambleRead;
+	private int epilogueRead;
+	private boolean fileDone;
+	private long bytesRead;
+	private long firstReadNanos;
+	private long lastReadNanos;
+
+	MultipartFileStream(Path file, String controlName, int chunkBytes) throws IOException {
+		String mimeType = Files.probeContentType(file);
+		String fileName = file.getFileName().toString().replace("\"", "%22");
+		preamble = ("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + controlName + "\"; filename=\""
+				+ fileName + "\"\r\nContent-Type: " + (mimeType == null ? "application/octet-stream" : mimeType)
+				+ "\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+		epilogue = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		length = preamble.length + channel.size() + epilogue.length;
+		chunk = ByteBuffer.allocateDirect(chunkBytes);
+		chunk.flip();
+	}
+
+	String contentType() {
+		return "multipart/form-data; boundary=" + boundary;
+	}
+
+	/**
+	 * @return long - Size of the whole body: part headers, file and closing
+	 *         boundary.
+	 */
+	long length() {
+		return length;
+	}
+
+	long bytesRead() {
+		return bytesRead;
+	}
+
+	long elapsedNanos() {
+		return firstReadNanos == 0 ? 0 : lastReadNanos - firstReadNanos;
+	}
+
+	@Override
+	public int read() throws IOException {
+		return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] target, int offset, int length) throws IOException {
+		if (length == 0) {
+			return 0;
+		}
+		if (firstReadNanos == 0) {
+			firstReadNanos = System.nanoTime();
+		}
+		int read;
+		if (preambleRead < preamble.length) {
+			read = Math.min(length, preamble.length - preambleRead);
+			System.arraycopy(preamble, preambleRead, target, offset, read);
+			preambleRead += read;
+		} else if (!fileDone && fill()) {
+			read = Math.min(length, chunk.remaining());
+			chunk.get(target, offset, read);
+		} else if (epilogueRead < epilogue.length) {
+			read = Math.min(length, epilogue.length - epilogueRead);
+			System.arraycopy(epilogue, epilogueRead, target, offset, read);
+			epilogueRead += read;
+		} else {
+			return -1;
+		}
+		bytesRead += read;
+		lastReadNanos = System.nanoTime();
+		return read;
+	}
+
+	// Reads the next chunk from disk once the buffered one has been handed out
+	private boolean fill() throws IOException {
+		if (chunk.hasRemaining()) {
+			return true;
+		}
+		chunk.clear();
+		int read;
+		do {
+			read = channel.read(chunk);
+		} while (read == 0);
+		chunk.flip();
+		if (read < 0) {
+			fileDone = true;
+			channel.close();
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		fileDone = true;
+		channel.close();
+	}
+}
@@ -0,0 +1,165 @@
+package rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+/**
+ * Fetches a large list in disjoint slices (server-side pages, or partitions
+ * such as date ranges) with bounded parallelism and hands the elements on in
+ * slice order.
+ *
+ * @description At most parallelism slices are requested at a time on
+ *              {@link ApiExecutors#exchanges()}, but only the oldest one is
+ *              read: its Results array is parsed straight off the connection
+ *              while the later ones wait with their bodies unread. A new slice
+ *              is requested as soon as the oldest one has been merged. Heap use
+ *              therefore stays flat whatever the size of the list; what the
+ *              window buys is the server time and latency of the later slices,
+ *              not their transfer. Slices must not overlap. The only
+ *              duplicates paging can produce are elements pushed across a page
+ *              boundary by an insert between two page requests, so with a key
+ *              field the keys of the previous and current page are remembered,
+ *              never the whole list; elements without the key field are
+ *              always kept. When paging, fetching stops at the first page with
+ *              fewer than pageSize elements. It also stops, without reaching
+ *              the last page, after maxPages pages or at a full page made up
+ *              only of duplicates, which is what a server that ignores the
+ *              page parameter returns. Pages already requested beyond the stop
+ *              are closed when they arrive: on the Apache client that reads the
+ *              rest of their body so the connection can be reused, on the JDK
+ *              client it cancels the body.
+ */
+final class ParallelFetch {
+
+	private static final TypeReference<Map<String, Object>> ELEMENT = new TypeReference<Map<String, Object>>() {
+	};
+
+	private final Function<String, InputStream> openSlice;
+	private final int parallelism;
+	private final String scope;
+
+	/**
+	 * @param openSlice - Sends the request for one slice path and returns its
+	 *                  unread JSON body; runs on the exchange pool and must fail
+	 *                  with an exception rather than return an error body.
+	 */
+	ParallelFetch(String scope, int parallelism, Function<String, InputStream> openSlice) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be at least 1, was " + parallelism);
+		}
+		this.scope = scope;
+		this.parallelism = parallelism;
+		this.openSlice = openSlice;
+	}
+
+	ParallelFetchResult partitions(List<String> paths, Consumer<Map<String, Object>> consumer) {
+		return run(paths::get, paths.size(), 0, null, consumer);
+	}
+
+	ParallelFetchResult pages(IntFunction<String> pagePath, int pageSize, int maxPages, String keyField,
+			Consumer<Map<String, Object>> consumer) {
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("pageSize must be at least 1, was " + pageSize);
+		}
+		if (maxPages < 1) {
+			throw new IllegalArgumentException("maxPages must be at least 1, was " + maxPages);
+		}
+		return run(pagePath, maxPages, pageSize, keyField, consumer);
+	}
+
+	private ParallelFetchResult run(IntFunction<String> slicePath, int slices, int pageSize, String keyField,
+			Consumer<Map<String, Object>> consumer) {
+		long start = System.nanoTime();
+		ArrayDeque<CompletableFuture<InputStream>> window = new ArrayDeque<>(parallelism);
+		Set<Object> previous = new HashSet<>();
+		int next = 0;
+		int fetched = 0;
+		long count = 0;
+		long duplicates = 0;
+		boolean lastPage = false;
+
+		try {
+			while (next < slices && window.size() < parallelism) {
+				window.add(submit(slicePath.apply(next++)));
+			}
+			while (!window.isEmpty()) {
+				Set<Object> current = new HashSet<>();
+				long[] merged = new long[2];
+				StreamedResults slice = JsonResultStream.forEach(join(window.poll()), "Results", ELEMENT, element -> {
+					if (keyField != null) {
+						Object key = element.get(keyField);
+						if (key != null && (previous.contains(key) || !current.add(key))) {
+							merged[1]++;
+							return;
+						}
+					}
+					consumer.accept(element);
+					merged[0]++;
+				});
+				fetched++;
+				count += merged[0];
+				duplicates += merged[1];
+				previous.clear();
+				previous.addAll(current);
+				if (pageSize > 0 && slice.count() < pageSize) {
+					// Anything still in the window lies past the end of the list
+					lastPage = true;
+					break;
+				}
+				if (pageSize > 0 && merged[0] == 0) {
+					// The same page again: the server is not paging
+					break;
+				}
+				if (next < slices) {
+					window.add(submit(slicePath.apply(next++)));
+				}
+			}
+		} finally {
+			for (CompletableFuture<InputStream> unread : window) {
+				unread.thenAccept(ParallelFetch::closeQuietly);
+			}
+		}
+
+		ApiMetrics.add(scope, "fetch.slices", fetched);
+		ApiMetrics.add(scope, "fetch.duplicates", duplicates);
+		if (pageSize > 0 && !lastPage) {
+			ApiMetrics.increment(scope, "fetch.incomplete");
+		}
+		return new ParallelFetchResult(fetched, count, duplicates, System.nanoTime() - start, lastPage);
+	}
+
+	private CompletableFuture<InputStream> submit(String path) {
+		return CompletableFuture.supplyAsync(() -> openSlice.apply(path), ApiExecutors.exchanges());
+	}
+
+	private static InputStream join(CompletableFuture<InputStream> slice) {
+		try {
+			return slice.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private static void closeQuietly(InputStream body) {
+		try {
+			body.close();
+		} catch (IOException e) {
+			// The connection is discarded either way
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package rest;
+
+/**
+ * Outcome of a parallel paged or partitioned fetch: how many slices were
+ * merged, how many elements reached the consumer and how many were dropped
+ * as duplicates.
+ */
+public final class ParallelFetchResult {
+
+	private final int slices;
+	private final long count;
+	private final long duplicates;
+	private final long elapsedNanos;
+	private final boolean lastPageReached;
+
+	ParallelFetchResult(int slices, long count, long duplicates, long elapsedNanos, boolean lastPageReached) {
+		this.slices = slices;
+		this.count = count;
+		this.duplicates = duplicates;
+		this.elapsedNanos = elapsedNanos;
+		this.lastPageReached = lastPageReached;
+	}
+
+	/**
+	 * @return int - Pages or partitions merged, including a final short page.
+	 */
+	public int slices() {
+		return slices;
+	}
+
+	public long count() {
+		return count;
+	}
+
+	public long duplicates() {
+		return duplicates;
+	}
+
+	public long elapsedMillis() {
+		return elapsedNanos / 1_000_000;
+	}
+
+	/**
+	 * @return boolean - True when paging stopped at a short page; false when
+	 *         it gave up at api.fetch.maxPages or at a page of duplicates, and
+	 *         always false for partitioned fetches.
+	 */
+	public boolean lastPageReached() {
+		return lastPageReached;
+	}
+
+	@Override
+	public String toString() {
+		return "slices=" + slices + ", count=" + count + ", duplicates=" + duplicates + ", elapsedMs="
+				+ elapsedMillis();
+	}
+}
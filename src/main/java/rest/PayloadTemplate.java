@@ -0,0 +1,241 @@
+package rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A flat JSON request body, such as {@code createAppointmentData.json}, in
+ * which a few top-level fields are filled in per request.
+ *
+ * @description The document is encoded once into UTF-8 byte segments: every
+ *              static field is written out in full and each slot field leaves
+ *              a gap after its {@code "Name":}. Rendering copies the segments
+ *              and the escaped slot values into one array, so a body costs a
+ *              single allocation and no object serialization. A slot keeps the
+ *              JSON type of the value in the document: string slots are quoted
+ *              and escaped, number and boolean slots only accept values of that
+ *              kind, so a rendered body is always valid JSON. Templates are
+ *              immutable and can be shared across threads; send the rendered
+ *              bytes with {@link ApiUtil#call(ApiEndpoint, String, Object)}.
+ */
+public final class PayloadTemplate {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final Pattern JSON_NUMBER = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+	private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+	private static final byte QUOTE = '"';
+
+	private enum SlotType {
+		STRING, NUMBER, BOOLEAN
+	}
+
+	private final String name;
+	// segments[i] precedes slots[i]; the last segment closes the document
+	private final byte[][] segments;
+	private final String[] slots;
+	private final SlotType[] types;
+	private final int segmentLength;
+
+	private PayloadTemplate(String name, List<byte[]> segments, List<String> slots, List<SlotType> types) {
+		this.name = name;
+		this.segments = segments.toArray(new byte[0][]);
+		this.slots = slots.toArray(new String[0]);
+		this.types = types.toArray(new SlotType[0]);
+		int length = 0;
+		for (byte[] segment : segments) {
+			length += segment.length;
+		}
+		this.segmentLength = length;
+	}
+
+	/**
+	 * @param jsonFile - Path of a JSON object, e.g.
+	 *                 src/main/resources/testData/createAppointmentData.json.
+	 * @param slots    - Top-level fields filled in per request, e.g. FirstName,
+	 *                 ContactNumber.
+	 */
+	public static PayloadTemplate fromFile(String jsonFile, String... slots) {
+		try {
+			return compile(jsonFile, new String(Files.readAllBytes(Paths.get(jsonFile)), StandardCharsets.UTF_8),
+					slots);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read payload template " + jsonFile, e);
+		}
+	}
+
+	public static PayloadTemplate fromJson(String json, String... slots) {
+		return compile("inline", json, slots);
+	}
+
+	private static PayloadTemplate compile(String name, String json, String... slotNames) {
+		JsonNode document;
+		try {
+			document = MAPPER.readTree(json);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Payload template " + name + " is not valid JSON", e);
+		}
+		if (document == null || !document.isObject()) {
+			throw new IllegalArgumentException("Payload template " + name + " must be a JSON object");
+		}
+		Set<String> wanted = new LinkedHashSet<>(Arrays.asList(slotNames));
+
+		List<byte[]> segments = new ArrayList<>();
+		List<String> slots = new ArrayList<>();
+		List<SlotType> types = new ArrayList<>();
+		ByteArrayOutputStream segment = new ByteArrayOutputStream(256);
+		segment.write('{');
+		boolean first = true;
+		for (Iterator<Map.Entry<String, JsonNode>> fields = document.fields(); fields.hasNext();) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			if (!first) {
+				segment.write(',');
+			}
+			first = false;
+			writeBytes(segment, quoted(field.getKey()));
+			segment.write(':');
+			if (wanted.remove(field.getKey())) {
+				segments.add(segment.toByteArray());
+				segment.reset();
+				slots.add(field.getKey());
+				types.add(slotType(name, field.getKey(), field.getValue()));
+			} else {
+				writeBytes(segment, encode(field.getValue()));
+			}
+		}
+		if (!wanted.isEmpty()) {
+			throw new IllegalArgumentException("Payload template " + name + " has no top-level field(s) " + wanted);
+		}
+		segment.write('}');
+		segments.add(segment.toByteArray());
+		return new PayloadTemplate(name, segments, slots, types);
+	}
+
+	private static SlotType slotType(String name, String field, JsonNode value) {
+		if (value.isTextual() || value.isNull()) {
+			return SlotType.STRING;
+		}
+		if (value.isNumber()) {
+			return SlotType.NUMBER;
+		}
+		if (value.isBoolean()) {
+			return SlotType.BOOLEAN;
+		}
+		throw new IllegalArgumentException("Payload template " + name + ": slot " + field + " must be a scalar");
+	}
+
+	public List<String> slotNames() {
+		List<String> names = new ArrayList<>(slots.length);
+		Collections.addAll(names, slots);
+		return names;
+	}
+
+	/**
+	 * @param values - One value per slot, in the order the slots appear in the
+	 *               document. Null values are written as JSON null.
+	 * @return byte[] - The UTF-8 JSON body.
+	 */
+	public byte[] render(Object... values) {
+		if (values.length != slots.length) {
+			throw new IllegalArgumentException(
+					"Payload template " + name + " expects " + slots.length + " values, got " + values.length);
+		}
+		byte[][] encoded = new byte[slots.length][];
+		int length = segmentLength;
+		for (int i = 0; i < slots.length; i++) {
+			encoded[i] = encodeSlot(i, values[i]);
+			length += encoded[i].length;
+		}
+
+		byte[] body = new byte[length];
+		int position = 0;
+		for (int i = 0; i < slots.length; i++) {
+			System.arraycopy(segments[i], 0, body, position, segments[i].length);
+			position += segments[i].length;
+			System.arraycopy(encoded[i], 0, body, position, encoded[i].length);
+			position += encoded[i].length;
+		}
+		System.arraycopy(segments[slots.length], 0, body, position, segments[slots.length].length);
+		return body;
+	}
+
+	/**
+	 * @param values - Values by slot name. Missing or null values are written as
+	 *               JSON null.
+	 */
+	public byte[] render(Map<String, ?> values) {
+		Object[] ordered = new Object[slots.length];
+		for (int i = 0; i < slots.length; i++) {
+			ordered[i] = values.get(slots[i]);
+		}
+		return render(ordered);
+	}
+
+	private byte[] encodeSlot(int slot, Object value) {
+		if (value == null) {
+			return NULL;
+		}
+		String text = value.toString();
+		switch (types[slot]) {
+		case NUMBER:
+			if (!(value instanceof Number || value instanceof String) || !JSON_NUMBER.matcher(text).matches()) {
+				throw invalid(slot, value, "a number");
+			}
+			return text.getBytes(StandardCharsets.US_ASCII);
+		case BOOLEAN:
+			if (!"true".equals(text) && !"false".equals(text)) {
+				throw invalid(slot, value, "true or false");
+			}
+			return text.getBytes(StandardCharsets.US_ASCII);
+		default:
+			return quoted(text);
+		}
+	}
+
+	private IllegalArgumentException invalid(int slot, Object value, String expected) {
+		return new IllegalArgumentException(
+				"Payload template " + name + ": slot " + slots[slot] + " needs " + expected + ", got '" + value + "'");
+	}
+
+	private static byte[] quoted(String text) {
+		byte[] escaped = JsonStringEncoder.getInstance().quoteAsUTF8(text);
+		byte[] quoted = new byte[escaped.length + 2];
+		quoted[0] = QUOTE;
+		System.arraycopy(escaped, 0, quoted, 1, escaped.length);
+		quoted[quoted.length - 1] = QUOTE;
+		return quoted;
+	}
+
+	private static byte[] encode(JsonNode value) {
+		try {
+			return MAPPER.writeValueAsBytes(value);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void writeBytes(ByteArrayOutputStream target, byte[] bytes) {
+		target.write(bytes, 0, bytes.length);
+	}
+
+	@Override
+	public String toString() {
+		return name + " " + slotNames();
+	}
+}
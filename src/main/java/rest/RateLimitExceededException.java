@@ -0,0 +1,13 @@
+package rest;
+
+/**
+ * Thrown in fail-fast mode (api.rateLimit.mode=fail) when a request would go
+ * over one of its configured rate limits.
+ */
+@SuppressWarnings("serial")
+public class RateLimitExceededException extends RuntimeException {
+
+	public RateLimitExceededException(ApiEndpoint endpoint, String limit) {
+		super("Rate limit " + limit + " exceeded by " + endpoint);
+	}
+}
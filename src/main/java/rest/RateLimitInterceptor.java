@@ -0,0 +1,106 @@
+package rest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.restassured.response.Response;
+import restConfig.ConfigManager;
+
+/**
+ * Holds outgoing traffic to the rates agreed for shared environments.
+ *
+ * @description Limits are optional and combine: a global one
+ *              (api.rateLimit.perSecond), one per endpoint group
+ *              ({@code api.group.<group>.ratePerSecond}, see
+ *              {@link ApiEndpoint#group()}) and one per endpoint
+ *              ({@code api.endpoint.<NAME>.ratePerSecond}). Each can set a burst
+ *              with the matching rateBurst / api.rateLimit.burst key. The
+ *              limiters are static, so every thread and every {@link ApiUtil}
+ *              in the JVM shares them. In the default blocking mode a request
+ *              waits for a permit from each of its limiters, and the wait is
+ *              recorded as throttle.waited / throttle.waitMs and in the
+ *              "throttle" histogram. With api.rateLimit.mode=fail it throws
+ *              {@link RateLimitExceededException} instead (counted as
+ *              throttle.rejected); permits already taken from the narrower
+ *              limiters are not handed back, and the circuit breaker does not
+ *              count the rejection as a failure. Sits behind caching,
+ *              single-flight, hedging and retries, just ahead of the timeout
+ *              and compression interceptors, so that cache hits and shared
+ *              single-flight answers do not use up permits, while hedges and
+ *              retries do.
+ */
+public class RateLimitInterceptor implements ApiInterceptor {
+
+	private static final RateLimiter GLOBAL = limiter("global", "api.rateLimit.perSecond", "api.rateLimit.burst");
+	private static final Map<String, RateLimiter> GROUPS = new ConcurrentHashMap<>();
+	private static final Map<ApiEndpoint, List<RateLimiter>> LIMITERS = new EnumMap<>(ApiEndpoint.class);
+
+	static {
+		for (ApiEndpoint endpoint : ApiEndpoint.values()) {
+			List<RateLimiter> limiters = new ArrayList<>(3);
+			addIfSet(limiters, limiter(endpoint.name(), "api.endpoint." + endpoint.name() + ".ratePerSecond",
+					"api.endpoint." + endpoint.name() + ".rateBurst"));
+			String group = endpoint.group();
+			if (!GROUPS.containsKey(group)) {
+				RateLimiter limiter = limiter(group, "api.group." + group + ".ratePerSecond",
+						"api.group." + group + ".rateBurst");
+				if (limiter != null) {
+					GROUPS.put(group, limiter);
+				}
+			}
+			addIfSet(limiters, GROUPS.get(group));
+			addIfSet(limiters, GLOBAL);
+			LIMITERS.put(endpoint, Collections.unmodifiableList(limiters));
+		}
+	}
+
+	private final boolean failFast = "fail".equalsIgnoreCase(ConfigManager.getProperty("api.rateLimit.mode", "block"));
+
+	@Override
+	public Response intercept(ApiCall call, Chain chain) {
+		List<RateLimiter> limiters = LIMITERS.get(call.endpoint());
+		if (limiters.isEmpty()) {
+			return chain.proceed(call);
+		}
+
+		String scope = call.endpoint().name();
+		if (failFast) {
+			for (RateLimiter limiter : limiters) {
+				if (!limiter.tryAcquire()) {
+					ApiMetrics.increment(scope, "throttle.rejected");
+					throw new RateLimitExceededException(call.endpoint(), limiter.name());
+				}
+			}
+		} else {
+			long waitedNanos = 0;
+			for (RateLimiter limiter : limiters) {
+				waitedNanos += limiter.acquire();
+			}
+			if (waitedNanos > 0) {
+				ApiMetrics.increment(scope, "throttle.waited");
+				ApiMetrics.add(scope, "throttle.waitMs", TimeUnit.NANOSECONDS.toMillis(waitedNanos));
+			}
+			ApiMetrics.histogram(scope, "throttle").record(waitedNanos);
+		}
+		return chain.proceed(call);
+	}
+
+	private static RateLimiter limiter(String name, String rateKey, String burstKey) {
+		double perSecond = Double.parseDouble(ConfigManager.getProperty(rateKey, "0"));
+		if (perSecond <= 0) {
+			return null;
+		}
+		return new RateLimiter(name, perSecond, ConfigManager.getIntProperty(burstKey, 1));
+	}
+
+	private static void addIfSet(List<RateLimiter> limiters, RateLimiter limiter) {
+		if (limiter != null) {
+			limiters.add(limiter);
+		}
+	}
+}
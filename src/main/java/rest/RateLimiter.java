@@ -0,0 +1,101 @@
+package rest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket, implemented as GCRA (generic cell rate algorithm).
+ *
+ * @description Instead of a token count and a refill timer the whole bucket
+ *              is one {@link AtomicLong}: the theoretical arrival time of the
+ *              next request. Taking a permit pushes that time one emission
+ *              interval ({@code 1s / permitsPerSecond}) into the future with a
+ *              single compare-and-set, and a permit is available while it is
+ *              at most {@code burst} intervals ahead of now. Threads never
+ *              block each other; a caller that has to wait has already
+ *              reserved its slot and only sleeps until it comes round.
+ */
+public final class RateLimiter {
+
+	private final String name;
+	private final long intervalNanos;
+	private final long toleranceNanos;
+	private final LongSupplier nanoTime;
+	private final LongConsumer park;
+	private final AtomicLong theoreticalArrival;
+
+	/**
+	 * @param permitsPerSecond - Sustained rate. Must be positive.
+	 * @param burst            - Permits that may be taken back to back after an
+	 *                         idle period. At least 1.
+	 */
+	public RateLimiter(String name, double permitsPerSecond, int burst) {
+		this(name, permitsPerSecond, burst, System::nanoTime, LockSupport::parkNanos);
+	}
+
+	/**
+	 * @param nanoTime - The clock, {@link System#nanoTime()} outside tests.
+	 * @param park     - Sleeps for up to the given nanoseconds.
+	 */
+	RateLimiter(String name, double permitsPerSecond, int burst, LongSupplier nanoTime, LongConsumer park) {
+		if (permitsPerSecond <= 0) {
+			throw new IllegalArgumentException("Rate for " + name + " must be positive: " + permitsPerSecond);
+		}
+		this.name = name;
+		this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+		this.toleranceNanos = intervalNanos * Math.max(0, burst - 1);
+		this.nanoTime = nanoTime;
+		this.park = park;
+		this.theoreticalArrival = new AtomicLong(nanoTime.getAsLong());
+	}
+
+	/**
+	 * Takes a permit only if one is available right now.
+	 */
+	public boolean tryAcquire() {
+		return reserve(false) == 0;
+	}
+
+	/**
+	 * Takes a permit, sleeping until it is due.
+	 *
+	 * @return long - Nanoseconds spent waiting, 0 when a permit was free.
+	 */
+	public long acquire() {
+		long waitNanos = reserve(true);
+		long deadline = nanoTime.getAsLong() + waitNanos;
+		for (long remaining = waitNanos; remaining > 0; remaining = deadline - nanoTime.getAsLong()) {
+			park.accept(remaining);
+			if (Thread.currentThread().isInterrupted()) {
+				throw new IllegalStateException("Interrupted while waiting for rate limit " + name);
+			}
+		}
+		return waitNanos;
+	}
+
+	/**
+	 * @return long - How long the caller must wait for its permit, or -1 when
+	 *         {@code wait} is false and no permit is free (nothing is taken).
+	 */
+	private long reserve(boolean wait) {
+		while (true) {
+			long now = nanoTime.getAsLong();
+			long current = theoreticalArrival.get();
+			long start = current - now > 0 ? current : now;
+			long waitNanos = start - toleranceNanos - now;
+			if (waitNanos > 0 && !wait) {
+				return -1;
+			}
+			if (theoreticalArrival.compareAndSet(current, start + intervalNanos)) {
+				return Math.max(0, waitNanos);
+			}
+		}
+	}
+
+	public String name() {
+		return name;
+	}
+}
@@ -0,0 +1,59 @@
+package rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+
+/**
+ * Receives a response body in full so that its connection goes back to the
+ * pool straight away.
+ *
+ * @description The body is read to the end into one array and the response is
+ *              rebuilt around it, so every accessor (asString(), jsonPath(),
+ *              asInputStream(), ...) can be called any number of times.
+ *              Buffered bodies live on the heap: a large list costs its full
+ *              size per concurrent caller. Such lists should not be buffered
+ *              at all; {@link ApiUtil#streamResults},
+ *              {@link ApiUtil#fetchPages} and {@link ApiUtil#download} read the
+ *              body off the connection in constant memory.
+ */
+public final class ResponseBodyStore {
+
+	private ResponseBodyStore() {
+	}
+
+	/**
+	 * @return Response - A copy of {@code response} whose unread body has been
+	 *         fully received.
+	 */
+	public static Response buffer(Response response) {
+		InputStream body = response.asInputStream();
+		try {
+			return build(new ResponseBuilder().clone(response), body);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read response body", e);
+		}
+	}
+
+	/**
+	 * Reads {@code body} to the end, closes it and builds the response with it.
+	 */
+	static Response build(ResponseBuilder builder, InputStream body) throws IOException {
+		try (InputStream in = body) {
+			ByteArrayOutputStream content = new ByteArrayOutputStream(8192);
+			byte[] buffer = new byte[8192];
+			for (int read; (read = in.read(buffer)) >= 0;) {
+				content.write(buffer, 0, read);
+			}
+			WireCounter wire = WireCounter.current();
+			if (wire != null) {
+				wire.addDecoded(content.size());
+			}
+			return builder.setBody(content.toByteArray()).build();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package rest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded client-side cache of responses with a TTL per entry and
+ * least-recently-used eviction once {@code maxEntries} is reached. A TTL of
+ * zero or less keeps the entry until it is evicted.
+ */
+public final class ResponseCache {
+
+	private final Map<String, Entry> entries;
+	private final LongSupplier nanoTime;
+	private long evictions;
+
+	public ResponseCache(int maxEntries) {
+		this(maxEntries, System::nanoTime);
+	}
+
+	ResponseCache(final int maxEntries, LongSupplier nanoTime) {
+		this.nanoTime = nanoTime;
+		// access-order LinkedHashMap: iteration starts at the least recently used entry
+		entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > maxEntries) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public synchronized ResponseSnapshot get(String key) {
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.expires && nanoTime.getAsLong() - entry.expiresAtNanos >= 0) {
+			entries.remove(key);
+			return null;
+		}
+		return entry.snapshot;
+	}
+
+	public synchronized void put(String key, ResponseSnapshot snapshot, long ttlSeconds) {
+		entries.put(key,
+				new Entry(snapshot, ttlSeconds > 0, nanoTime.getAsLong() + TimeUnit.SECONDS.toNanos(ttlSeconds)));
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long evictions() {
+		return evictions;
+	}
+
+	private static final class Entry {
+		final ResponseSnapshot snapshot;
+		final boolean expires;
+		final long expiresAtNanos;
+
+		Entry(ResponseSnapshot snapshot, boolean expires, long expiresAtNanos) {
+			this.snapshot = snapshot;
+			this.expires = expires;
+			this.expiresAtNanos = expiresAtNanos;
+		}
+	}
+}
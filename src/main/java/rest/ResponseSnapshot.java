@@ -0,0 +1,53 @@
+package rest;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+/**
+ * A fully read, immutable copy of a response that can be kept and replayed.
+ * Every {@link #toResponse()} call builds a fresh RestAssured Response, so
+ * callers on different threads never share one Response instance.
+ */
+public final class ResponseSnapshot {
+
+	private final int statusCode;
+	private final String statusLine;
+	private final Headers headers;
+	private final String contentType;
+	private final byte[] body;
+
+	private ResponseSnapshot(int statusCode, String statusLine, Headers headers, String contentType, byte[] body) {
+		this.statusCode = statusCode;
+		this.statusLine = statusLine;
+		this.headers = headers;
+		this.contentType = contentType;
+		this.body = body;
+	}
+
+	public static ResponseSnapshot of(Response response) {
+		return new ResponseSnapshot(response.statusCode(), response.statusLine(), response.headers(),
+				response.contentType(), response.asByteArray());
+	}
+
+	public int statusCode() {
+		return statusCode;
+	}
+
+	public Headers headers() {
+		return headers;
+	}
+
+	public int bodyLength() {
+		return body.length;
+	}
+
+	public Response toResponse() {
+		ResponseBuilder builder = new ResponseBuilder().setStatusCode(statusCode).setStatusLine(statusLine)
+				.setHeaders(headers).setBody(body);
+		if (contentType != null && !contentType.isEmpty()) {
+			builder.setContentType(contentType);
+		}
+		return builder.build();
+	}
+}
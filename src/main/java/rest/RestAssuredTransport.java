@@ -0,0 +1,50 @@
+package rest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import io.restassured.RestAssured;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Sends requests through RestAssured's Apache client stack. The spec already
+ * carries the pooled client config from ApiUtil's base spec.
+ */
+public class RestAssuredTransport implements HttpTransport {
+
+	@Override
+	public Response execute(Method method, String path, RequestSpecification request) {
+		Response response = stream(method, path, request);
+		// The pooled connection is only released once the entity has been read. Receive it
+		// now, so callers that only check the status code do not leave the connection
+		// leased until the pool runs dry.
+		try {
+			return ResponseBodyStore.buffer(response);
+		} catch (Exception e) {
+			throw unchecked(method, path, e);
+		}
+	}
+
+	@Override
+	public Response stream(Method method, String path, RequestSpecification request) {
+		// Send a merged copy so the caller's spec stays reusable for another attempt.
+		// URL encoding is off in the base spec, so hand-built paths get their illegal
+		// characters quoted here while template-encoded ones pass through unchanged.
+		try {
+			return RestAssured.given().spec(request).request(method, UriTemplate.quoteIllegalCharacters(path));
+		} catch (Exception e) {
+			throw unchecked(method, path, e);
+		}
+	}
+
+	// RestAssured rethrows socket errors as undeclared checked exceptions; wrap them
+	// like the JDK transport does so interceptors see a RuntimeException
+	private static RuntimeException unchecked(Method method, String path, Exception e) {
+		if (e instanceof IOException) {
+			return new UncheckedIOException(method + " " + path + " failed", (IOException) e);
+		}
+		return e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(e);
+	}
+}
@@ -0,0 +1,58 @@
+package rest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JVM-wide allowance of retries, earned as a fraction of ordinary requests.
+ *
+ * @description Every first attempt deposits {@code ratio} of a token and every
+ *              retry withdraws a whole one, so over time retries can add at
+ *              most that fraction of extra traffic (0.1 = 10%). The balance
+ *              starts full and is capped at {@code maxTokens}, which lets a
+ *              quiet suite still retry a few isolated blips. When a whole
+ *              environment is failing the budget drains quickly and requests
+ *              fail at their first attempt instead of multiplying the load.
+ *              Tokens are kept in thousandths in one {@link AtomicLong}.
+ */
+public final class RetryBudget {
+
+	private static final long SCALE = 1000;
+
+	private final long deposit;
+	private final long capacity;
+	private final AtomicLong balance;
+
+	public RetryBudget(double ratio, int maxTokens) {
+		this.deposit = Math.round(ratio * SCALE);
+		this.capacity = maxTokens * SCALE;
+		this.balance = new AtomicLong(capacity);
+	}
+
+	public void onRequest() {
+		long current;
+		do {
+			current = balance.get();
+			if (current >= capacity) {
+				return;
+			}
+		} while (!balance.compareAndSet(current, Math.min(capacity, current + deposit)));
+	}
+
+	/**
+	 * @return boolean - Whether a retry may be sent; takes its token if so.
+	 */
+	public boolean tryWithdraw() {
+		long current;
+		do {
+			current = balance.get();
+			if (current < SCALE) {
+				return false;
+			}
+		} while (!balance.compareAndSet(current, current - SCALE));
+		return true;
+	}
+
+	public double tokens() {
+		return (double) balance.get() / SCALE;
+	}
+}
@@ -0,0 +1,159 @@
+package rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import restConfig.ConfigManager;
+
+/**
+ * Retries idempotent requests that failed for transient reasons.
+ *
+ * @description Off unless api.retry.enabled is set, and then limited to
+ *              endpoints that are {@link ApiEndpoint#isIdempotent()} (GET,
+ *              HEAD, OPTIONS or explicitly marked ones). Covers 502/503/504
+ *              responses and I/O errors such as connection resets. Timeouts, open circuits and rate-limit rejections are
+ *              passed straight through: retrying a slow endpoint would only
+ *              multiply the wait. Up to api.retry.maxAttempts attempts
+ *              are made with exponential backoff and full jitter (a random
+ *              sleep between 0 and api.retry.baseDelayMs * 2^n, capped at
+ *              api.retry.maxDelayMs). A Retry-After header is honoured as the
+ *              minimum wait; if it asks for longer than api.retry.maxDelayMs
+ *              the response is returned as is. Every retry must be paid for
+ *              from the shared {@link RetryBudget} (api.retry.budgetRatio of
+ *              the request volume). Counts retry.attempts, retry.recovered and
+ *              retry.budgetExhausted per endpoint. Sits before the rate limiter
+ *              so that retries also take permits.
+ */
+public class RetryInterceptor implements ApiInterceptor {
+
+	private static final RetryBudget BUDGET = new RetryBudget(
+			Double.parseDouble(ConfigManager.getProperty("api.retry.budgetRatio", "0.1")),
+			ConfigManager.getIntProperty("api.retry.budgetMaxTokens", 10));
+
+	private final boolean enabled = ConfigManager.getBooleanProperty("api.retry.enabled", false);
+	private final int maxAttempts = ConfigManager.getIntProperty("api.retry.maxAttempts", 3);
+	private final long baseDelayMillis = ConfigManager.getLongProperty("api.retry.baseDelayMs", 100);
+	private final long maxDelayMillis = ConfigManager.getLongProperty("api.retry.maxDelayMs", 5000);
+
+	public static RetryBudget budget() {
+		return BUDGET;
+	}
+
+	@Override
+	public Response intercept(ApiCall call, Chain chain) {
+		// A streamed body is consumed by the first attempt and cannot be sent again
+		if (!enabled || !call.endpoint().isIdempotent()
+				|| ((FilterableRequestSpecification) call.request()).getBody() instanceof InputStream) {
+			return chain.proceed(call);
+		}
+
+		String scope = call.endpoint().name();
+		BUDGET.onRequest();
+		for (int attempt = 1;; attempt++) {
+			Response response;
+			try {
+				response = chain.proceed(call);
+			} catch (RuntimeException e) {
+				if (!isTransient(e) || !mayRetry(scope, attempt)) {
+					throw e;
+				}
+				backOff(call, attempt, 0);
+				continue;
+			}
+
+			if (!isTransient(response.statusCode())) {
+				if (attempt > 1) {
+					ApiMetrics.increment(scope, "retry.recovered");
+				}
+				return response;
+			}
+			long retryAfterMillis = retryAfterMillis(response);
+			if (retryAfterMillis > maxDelayMillis || !mayRetry(scope, attempt)) {
+				return response;
+			}
+			// Read the discarded reply so a streamed one gives its connection back
+			response.asByteArray();
+			backOff(call, attempt, retryAfterMillis);
+		}
+	}
+
+	private boolean mayRetry(String scope, int attempt) {
+		if (attempt >= maxAttempts) {
+			return false;
+		}
+		if (!BUDGET.tryWithdraw()) {
+			ApiMetrics.increment(scope, "retry.budgetExhausted");
+			return false;
+		}
+		ApiMetrics.increment(scope, "retry.attempts");
+		return true;
+	}
+
+	private void backOff(ApiCall call, int attempt, long minimumMillis) {
+		long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 20));
+		long sleepMillis = Math.max(minimumMillis, ThreadLocalRandom.current().nextLong(ceiling + 1));
+		try {
+			Thread.sleep(sleepMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(call + " was interrupted while backing off", e);
+		}
+	}
+
+	private static boolean isTransient(int statusCode) {
+		return statusCode == 502 || statusCode == 503 || statusCode == 504;
+	}
+
+	private static boolean isTransient(RuntimeException error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof InterruptedIOException || cause instanceof HttpTimeoutException) {
+				return false;
+			}
+			if (cause instanceof IOException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return long - The wait the server asked for in milliseconds, 0 if none
+	 *         or unparseable. Retry-After is either delta-seconds or an
+	 *         HTTP-date.
+	 */
+	static long retryAfterMillis(Response response) {
+		return retryAfterMillis(response, Clock.systemUTC());
+	}
+
+	/**
+	 * @param clock - Gives the current time an HTTP-date is measured from.
+	 */
+	static long retryAfterMillis(Response response, Clock clock) {
+		String value = response.getHeader("Retry-After");
+		if (value == null || value.trim().isEmpty()) {
+			return 0;
+		}
+		value = value.trim();
+		try {
+			return Math.max(0, Long.parseLong(value) * 1000);
+		} catch (NumberFormatException e) {
+			// not delta-seconds, try the date form
+		}
+		try {
+			ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+			return Math.max(0, Duration.between(clock.instant(), at.toInstant()).toMillis());
+		} catch (DateTimeParseException e) {
+			return 0;
+		}
+	}
+}
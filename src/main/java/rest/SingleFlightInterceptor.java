@@ -0,0 +1,65 @@
+package rest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import restConfig.ConfigManager;
+
+/**
+ * Coalesces identical concurrent GETs into one exchange.
+ *
+ * @description The first thread to issue a given GET (same method, path and
+ *              principal) becomes the leader and performs the request; threads
+ *              asking for the same thing while it is in flight wait for the
+ *              leader's result instead of sending their own. Everyone receives
+ *              their own copy of the response, or the leader's exception.
+ *              Nothing is kept once the exchange completes, so this never
+ *              serves stale data. Off unless api.singleFlight.enabled=true;
+ *              joined callers are counted as singleFlight.shared.
+ */
+public class SingleFlightInterceptor implements ApiInterceptor {
+
+	private final ConcurrentMap<String, CompletableFuture<ResponseSnapshot>> inFlight = new ConcurrentHashMap<>();
+	private final boolean enabled = ConfigManager.getBooleanProperty("api.singleFlight.enabled", false);
+
+	@Override
+	public Response intercept(ApiCall call, Chain chain) {
+		if (!enabled || call.method() != Method.GET || call.isStreaming()) {
+			return chain.proceed(call);
+		}
+
+		String key = call.key();
+		CompletableFuture<ResponseSnapshot> leader = new CompletableFuture<>();
+		CompletableFuture<ResponseSnapshot> existing = inFlight.putIfAbsent(key, leader);
+		if (existing != null) {
+			ApiMetrics.increment(call.endpoint().name(), "singleFlight.shared");
+			return await(existing).toResponse();
+		}
+
+		try {
+			ResponseSnapshot snapshot = ResponseSnapshot.of(chain.proceed(call));
+			leader.complete(snapshot);
+			return snapshot.toResponse();
+		} catch (RuntimeException | Error e) {
+			leader.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, leader);
+		}
+	}
+
+	private static ResponseSnapshot await(CompletableFuture<ResponseSnapshot> flight) {
+		try {
+			return flight.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+}
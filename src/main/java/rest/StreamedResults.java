@@ -0,0 +1,49 @@
+package rest;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Outcome of a streamed call: the HTTP status, the envelope's top-level scalar
+ * fields and how many array elements were handed to the consumer.
+ */
+public final class StreamedResults {
+
+	private final int statusCode;
+	private final Map<String, Object> fields;
+	private final long count;
+
+	StreamedResults(int statusCode, Map<String, Object> fields, long count) {
+		this.statusCode = statusCode;
+		this.fields = Collections.unmodifiableMap(fields);
+		this.count = count;
+	}
+
+	StreamedResults withStatusCode(int statusCode) {
+		return new StreamedResults(statusCode, fields, count);
+	}
+
+	public int statusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * @return Object - A top-level scalar field such as {@code Status}, or null.
+	 */
+	public Object field(String name) {
+		return fields.get(name);
+	}
+
+	public Map<String, Object> fields() {
+		return fields;
+	}
+
+	public long count() {
+		return count;
+	}
+
+	@Override
+	public String toString() {
+		return "status=" + statusCode + ", fields=" + fields + ", count=" + count;
+	}
+}
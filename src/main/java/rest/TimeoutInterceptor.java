@@ -0,0 +1,98 @@
+package rest;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.http.conn.ConnectTimeoutException;
+
+import io.restassured.response.Response;
+
+/**
+ * Applies the endpoint's connect, read and deadline timeouts to each exchange
+ * and records which one fired.
+ *
+ * @description Connect and read timeouts are bound to the exchange thread
+ *              through {@link ExchangeTimeouts} and enforced by the socket.
+ *              With a deadline the exchange runs on
+ *              {@link ApiExecutors#exchanges()} while the caller waits at most
+ *              that long; when it expires the request is aborted, which closes
+ *              the socket and frees its pool slot, and the caller gets a
+ *              {@link DeadlineExceededException}. A streaming call's
+ *              exchange completes with the response headers, so its body is
+ *              read after the deadline has stopped applying. Outcomes are counted per
+ *              endpoint as timeout.connect, timeout.read and timeout.deadline.
+ *              Sits last in the pipeline so that every hedge gets its own
+ *              timeouts.
+ */
+public class TimeoutInterceptor implements ApiInterceptor {
+
+	@Override
+	public Response intercept(ApiCall call, Chain chain) {
+		ApiEndpoint endpoint = call.endpoint();
+		long deadlineMillis = endpoint.deadline().toMillis();
+		ExchangeTimeouts timeouts = new ExchangeTimeouts((int) endpoint.connectTimeout().toMillis(),
+				(int) endpoint.readTimeout().toMillis());
+		if (deadlineMillis <= 0) {
+			return exchange(call, chain, timeouts);
+		}
+
+		Future<Response> exchange = ApiExecutors.exchanges().submit(() -> exchange(call, chain, timeouts));
+		try {
+			return exchange.get(deadlineMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			timeouts.abort();
+			exchange.cancel(true);
+			ApiMetrics.increment(endpoint.name(), "timeout.deadline");
+			throw new DeadlineExceededException(call, deadlineMillis);
+		} catch (ExecutionException e) {
+			throw rethrow(e.getCause());
+		} catch (InterruptedException e) {
+			timeouts.abort();
+			exchange.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(call + " was interrupted", e);
+		}
+	}
+
+	private static Response exchange(ApiCall call, Chain chain, ExchangeTimeouts timeouts) {
+		timeouts.bind();
+		try {
+			return chain.proceed(call);
+		} catch (RuntimeException e) {
+			String kind = timeoutKind(e);
+			if (kind != null) {
+				ApiMetrics.increment(call.endpoint().name(), "timeout." + kind);
+			}
+			throw e;
+		} finally {
+			ExchangeTimeouts.unbind();
+		}
+	}
+
+	private static String timeoutKind(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConnectTimeoutException || cause instanceof HttpConnectTimeoutException) {
+				return "connect";
+			}
+			if (cause instanceof SocketTimeoutException || cause instanceof HttpTimeoutException) {
+				return "read";
+			}
+		}
+		return null;
+	}
+
+	private static RuntimeException rethrow(Throwable cause) {
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+		return new IllegalStateException(cause);
+	}
+}
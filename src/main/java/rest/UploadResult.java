@@ -0,0 +1,53 @@
+package rest;
+
+import io.restassured.response.Response;
+
+/**
+ * Outcome of a streamed file upload: the server's response and how fast the
+ * body went out.
+ */
+public final class UploadResult {
+
+	private final Response response;
+	private final long bytes;
+	private final long elapsedNanos;
+
+	UploadResult(Response response, long bytes, long elapsedNanos) {
+		this.response = response;
+		this.bytes = bytes;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public Response response() {
+		return response;
+	}
+
+	public int statusCode() {
+		return response.statusCode();
+	}
+
+	/**
+	 * @return long - Request body bytes sent, multipart framing included.
+	 */
+	public long bytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return long - Time from the first to the last byte of the body being
+	 *         handed to the connection; excludes waiting for the reply.
+	 */
+	public long elapsedMillis() {
+		return elapsedNanos / 1_000_000;
+	}
+
+	public double bytesPerSecond() {
+		return elapsedNanos == 0 ? 0 : bytes * 1_000_000_000.0 / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("status=%d, %d bytes in %d ms (%.2f MB/s)", statusCode(), bytes, elapsedMillis(),
+				bytesPerSecond() / (1024 * 1024));
+	}
+}
@@ -0,0 +1,179 @@
+package rest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A path/query template such as
+ * {@code /Appointment/CheckClashingAppointment?patientId={patientId}&requestDate={requestDate}}
+ * parsed once into literal and variable parts.
+ *
+ * @description Expanding only appends the pre-split literals and the
+ *              percent-encoded values, so there is no re-parsing or repeated
+ *              string concatenation on the hot path. Values are encoded as
+ *              UTF-8 with everything outside the RFC 3986 unreserved set
+ *              escaped ({@code Morning Counter} becomes
+ *              {@code Morning%20Counter}, {@code &} and {@code +} are escaped
+ *              too). Encoded values are cached because the same dates, ids and
+ *              names are expanded over and over.
+ */
+public final class UriTemplate {
+
+	private static final int ENCODING_CACHE_LIMIT = 4096;
+	private static final Map<String, String> ENCODING_CACHE = new ConcurrentHashMap<>();
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	private final String template;
+	// literals.get(i) precedes variables.get(i); the last literal closes the template
+	private final String[] literals;
+	private final String[] variables;
+	private final int literalLength;
+
+	private UriTemplate(String template, List<String> literals, List<String> variables) {
+		this.template = template;
+		this.literals = literals.toArray(new String[0]);
+		this.variables = variables.toArray(new String[0]);
+		int length = 0;
+		for (String literal : literals) {
+			length += literal.length();
+		}
+		this.literalLength = length;
+	}
+
+	public static UriTemplate compile(String template) {
+		List<String> literals = new ArrayList<>();
+		List<String> variables = new ArrayList<>();
+		int start = 0;
+		int open;
+		while ((open = template.indexOf('{', start)) >= 0) {
+			int close = template.indexOf('}', open);
+			if (close < 0) {
+				throw new IllegalArgumentException("Unclosed '{' in URI template: " + template);
+			}
+			literals.add(template.substring(start, open));
+			variables.add(template.substring(open + 1, close));
+			start = close + 1;
+		}
+		literals.add(template.substring(start));
+		return new UriTemplate(template, literals, variables);
+	}
+
+	public List<String> variableNames() {
+		List<String> names = new ArrayList<>(variables.length);
+		Collections.addAll(names, variables);
+		return names;
+	}
+
+	/**
+	 * @param values - One value per variable, in the order they appear in the
+	 *               template. Null values expand to an empty string.
+	 */
+	public String expand(Object... values) {
+		if (values.length != variables.length) {
+			throw new IllegalArgumentException(
+					"URI template " + template + " expects " + variables.length + " values, got " + values.length);
+		}
+		StringBuilder uri = new StringBuilder(literalLength + 16 * variables.length);
+		for (int i = 0; i < variables.length; i++) {
+			uri.append(literals[i]).append(encode(values[i] == null ? "" : values[i].toString()));
+		}
+		return uri.append(literals[variables.length]).toString();
+	}
+
+	/**
+	 * @param values - Values by variable name. Missing or null values expand
+	 *               to an empty string.
+	 */
+	public String expand(Map<String, ?> values) {
+		Object[] ordered = new Object[variables.length];
+		for (int i = 0; i < variables.length; i++) {
+			ordered[i] = values.get(variables[i]);
+		}
+		return expand(ordered);
+	}
+
+	public static String encode(String value) {
+		if (isUnreserved(value)) {
+			return value;
+		}
+		String encoded = ENCODING_CACHE.get(value);
+		if (encoded == null) {
+			encoded = percentEncode(value);
+			if (ENCODING_CACHE.size() >= ENCODING_CACHE_LIMIT) {
+				ENCODING_CACHE.clear();
+			}
+			ENCODING_CACHE.put(value, encoded);
+		}
+		return encoded;
+	}
+
+	/**
+	 * Escapes only the characters that can never appear in a URI (spaces,
+	 * quotes, non-ASCII, ...) and leaves everything else, including existing
+	 * %XX escapes, untouched. Used for endpoint strings built by hand rather
+	 * than through a template.
+	 */
+	public static String quoteIllegalCharacters(String uri) {
+		StringBuilder quoted = null;
+		for (int i = 0; i < uri.length(); i += Character.charCount(uri.codePointAt(i))) {
+			int c = uri.codePointAt(i);
+			boolean legal = c < 0x80 && c > 0x20 && "\"<>\\^`{|}".indexOf(c) < 0;
+			if (legal) {
+				if (quoted != null) {
+					quoted.append((char) c);
+				}
+				continue;
+			}
+			if (quoted == null) {
+				quoted = new StringBuilder(uri.length() + 16).append(uri, 0, i);
+			}
+			appendEscaped(quoted, new String(Character.toChars(c)));
+		}
+		return quoted == null ? uri : quoted.toString();
+	}
+
+	private static boolean isUnreserved(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (!isUnreserved(value.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isUnreserved(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '.'
+				|| c == '_' || c == '~';
+	}
+
+	private static String percentEncode(String value) {
+		StringBuilder encoded = new StringBuilder(value.length() + 16);
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (isUnreserved(c)) {
+				encoded.append(c);
+			} else if (Character.isHighSurrogate(c) && i + 1 < value.length()) {
+				appendEscaped(encoded, value.substring(i, i + 2));
+				i++;
+			} else {
+				appendEscaped(encoded, String.valueOf(c));
+			}
+		}
+		return encoded.toString();
+	}
+
+	private static void appendEscaped(StringBuilder target, String characters) {
+		for (byte b : characters.getBytes(StandardCharsets.UTF_8)) {
+			target.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return template;
+	}
+}
@@ -0,0 +1,75 @@
+package rest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bytes received for the exchange running on the current thread: on the wire,
+ * before any content decoding, and after decoding as stored for the caller.
+ * Bound by {@link CompressionInterceptor} and fed by the transports and
+ * {@link ResponseBodyStore}.
+ */
+final class WireCounter {
+
+	private static final ThreadLocal<WireCounter> CURRENT = new ThreadLocal<>();
+
+	private long bytes;
+	private long decodedBytes;
+
+	static WireCounter bind() {
+		WireCounter counter = new WireCounter();
+		CURRENT.set(counter);
+		return counter;
+	}
+
+	static void unbind() {
+		CURRENT.remove();
+	}
+
+	static WireCounter current() {
+		return CURRENT.get();
+	}
+
+	void add(long count) {
+		bytes += count;
+	}
+
+	long bytes() {
+		return bytes;
+	}
+
+	void addDecoded(long count) {
+		decodedBytes += count;
+	}
+
+	long decodedBytes() {
+		return decodedBytes;
+	}
+
+	/**
+	 * @return InputStream - {@code in}, adding every byte read from it to this
+	 *         counter's wire bytes.
+	 */
+	InputStream counting(InputStream in) {
+		return new FilterInputStream(in) {
+			@Override
+			public int read() throws IOException {
+				int b = super.read();
+				if (b >= 0) {
+					bytes++;
+				}
+				return b;
+			}
+
+			@Override
+			public int read(byte[] buffer, int offset, int length) throws IOException {
+				int read = super.read(buffer, offset, length);
+				if (read > 0) {
+					bytes += read;
+				}
+				return read;
+			}
+		};
+	}
+}
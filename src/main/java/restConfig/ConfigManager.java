@@ -19,4 +19,22 @@ public class ConfigManager {
 	public static String getProperty(String key) {
 		return props.getProperty(key);
 	}
+
+	// System properties win over the file so a run can be tuned with -Dkey=value
+	public static String getProperty(String key, String defaultValue) {
+		String value = System.getProperty(key, props.getProperty(key));
+		return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+	}
+
+	public static int getIntProperty(String key, int defaultValue) {
+		return Integer.parseInt(getProperty(key, String.valueOf(defaultValue)));
+	}
+
+	public static long getLongProperty(String key, long defaultValue) {
+		return Long.parseLong(getProperty(key, String.valueOf(defaultValue)));
+	}
+
+	public static boolean getBooleanProperty(String key, boolean defaultValue) {
+		return Boolean.parseBoolean(getProperty(key, String.valueOf(defaultValue)));
+	}
 }
@@ -0,0 +1,79 @@
+package rest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+public class CachingInterceptorTest {
+
+	private final AtomicInteger exchanges = new AtomicInteger();
+	private CachingInterceptor interceptor;
+
+	@BeforeMethod
+	public void enableCache() {
+		System.setProperty("api.cache.enabled", "true");
+		try {
+			interceptor = new CachingInterceptor();
+		} finally {
+			System.clearProperty("api.cache.enabled");
+		}
+		CachingInterceptor.cache().clear();
+		exchanges.set(0);
+	}
+
+	private static ApiCall call(ApiEndpoint endpoint, String authorization) {
+		return new ApiCall(endpoint, endpoint.pathTemplate(),
+				RestAssured.given().header("Authorization", authorization));
+	}
+
+	// Answers with the given status and a body that tells the exchanges apart
+	private ApiInterceptor.Chain server(int status) {
+		return call -> new ResponseBuilder().setStatusCode(status).setStatusLine("HTTP/1.1 " + status)
+				.setHeaders(new Headers()).setBody("{\"Exchange\":" + exchanges.incrementAndGet() + "}").build();
+	}
+
+	@Test
+	public void servesARepeatedGetFromTheCache() {
+		Assert.assertTrue(ApiEndpoint.MAIN_STORE.isCacheable());
+		long hits = ApiMetrics.get("MAIN_STORE", "cache.hit");
+		Response first = interceptor.intercept(call(ApiEndpoint.MAIN_STORE, "user-a"), server(200));
+		Response second = interceptor.intercept(call(ApiEndpoint.MAIN_STORE, "user-a"), server(200));
+		Assert.assertEquals(exchanges.get(), 1);
+		Assert.assertEquals(second.asString(), first.asString());
+		Assert.assertEquals(ApiMetrics.get("MAIN_STORE", "cache.hit"), hits + 1);
+	}
+
+	@Test
+	public void keepsUsersApart() {
+		interceptor.intercept(call(ApiEndpoint.MAIN_STORE, "user-a"), server(200));
+		Response other = interceptor.intercept(call(ApiEndpoint.MAIN_STORE, "user-b"), server(200));
+		Assert.assertEquals(exchanges.get(), 2);
+		Assert.assertEquals(other.jsonPath().getInt("Exchange"), 2);
+	}
+
+	@Test
+	public void storesOnlySuccessfulResponses() {
+		interceptor.intercept(call(ApiEndpoint.MAIN_STORE, "user-a"), server(500));
+		interceptor.intercept(call(ApiEndpoint.MAIN_STORE, "user-a"), server(200));
+		Assert.assertEquals(exchanges.get(), 2);
+		Assert.assertEquals(CachingInterceptor.cache().size(), 1);
+	}
+
+	@Test
+	public void passesUncacheableAndStreamingCallsStraightOn() {
+		Assert.assertFalse(ApiEndpoint.ALL_STOCK_DETAILS.isCacheable());
+		interceptor.intercept(call(ApiEndpoint.ALL_STOCK_DETAILS, "user-a"), server(200));
+		interceptor.intercept(call(ApiEndpoint.ALL_STOCK_DETAILS, "user-a"), server(200));
+		interceptor.intercept(call(ApiEndpoint.MAIN_STORE, "user-a").streaming(), server(200));
+		interceptor.intercept(call(ApiEndpoint.MAIN_STORE, "user-a").streaming(), server(200));
+		Assert.assertEquals(exchanges.get(), 4);
+		Assert.assertEquals(CachingInterceptor.cache().size(), 0);
+	}
+}
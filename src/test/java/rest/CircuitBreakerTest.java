@@ -0,0 +1,176 @@
+package rest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import rest.CircuitBreaker.State;
+
+public class CircuitBreakerTest {
+
+	private static final long OPEN_MILLIS = 50;
+
+	private final AtomicLong now = new AtomicLong();
+
+	// window of 10, at least 4 calls, opens at 50% failures, 2 probes; time only moves when the test says so
+	private CircuitBreaker breaker() {
+		return new CircuitBreaker("TEST", 10, 4, 50, OPEN_MILLIS, 2, now::get);
+	}
+
+	private void advanceMillis(long millis) {
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+
+	private static void record(CircuitBreaker breaker, boolean... failures) {
+		for (boolean failure : failures) {
+			long permit = breaker.tryAcquire();
+			Assert.assertNotEquals(permit, CircuitBreaker.REJECTED);
+			if (failure) {
+				breaker.onFailure(permit);
+			} else {
+				breaker.onSuccess(permit);
+			}
+		}
+	}
+
+	private CircuitBreaker halfOpen() {
+		CircuitBreaker breaker = breaker();
+		record(breaker, true, true, true, true);
+		advanceMillis(OPEN_MILLIS);
+		return breaker;
+	}
+
+	@Test
+	public void staysClosedBelowMinimumCalls() {
+		CircuitBreaker breaker = breaker();
+		record(breaker, true, true, true);
+		Assert.assertEquals(breaker.state(), State.CLOSED);
+		Assert.assertEquals(breaker.failureRate(), 100.0);
+	}
+
+	@Test
+	public void opensAtFailureRateThreshold() {
+		CircuitBreaker breaker = breaker();
+		record(breaker, false, true, false);
+		Assert.assertEquals(breaker.state(), State.CLOSED);
+		record(breaker, true);
+		Assert.assertEquals(breaker.state(), State.OPEN);
+		Assert.assertEquals(breaker.tryAcquire(), CircuitBreaker.REJECTED);
+		Assert.assertEquals(breaker.remainingOpenMillis(), OPEN_MILLIS);
+	}
+
+	@Test
+	public void staysOpenUntilTheOpenPeriodEnds() {
+		CircuitBreaker breaker = breaker();
+		record(breaker, true, true, true, true);
+		advanceMillis(OPEN_MILLIS - 1);
+		Assert.assertEquals(breaker.tryAcquire(), CircuitBreaker.REJECTED);
+		Assert.assertEquals(breaker.remainingOpenMillis(), 1);
+		advanceMillis(1);
+		Assert.assertNotEquals(breaker.tryAcquire(), CircuitBreaker.REJECTED);
+		Assert.assertEquals(breaker.state(), State.HALF_OPEN);
+	}
+
+	@Test
+	public void slidingWindowForgetsOldOutcomes() {
+		CircuitBreaker breaker = breaker();
+		record(breaker, true, true, false, false, false, false, false, false, false, false);
+		Assert.assertEquals(breaker.failureRate(), 20.0);
+		// The two failures drop out of the window of 10
+		record(breaker, false, false);
+		Assert.assertEquals(breaker.failureRate(), 0.0);
+		Assert.assertEquals(breaker.state(), State.CLOSED);
+	}
+
+	@Test
+	public void letsLimitedProbesThroughOnceOpenPeriodEnds() {
+		CircuitBreaker breaker = halfOpen();
+		Assert.assertNotEquals(breaker.tryAcquire(), CircuitBreaker.REJECTED);
+		Assert.assertEquals(breaker.state(), State.HALF_OPEN);
+		Assert.assertNotEquals(breaker.tryAcquire(), CircuitBreaker.REJECTED);
+		Assert.assertEquals(breaker.tryAcquire(), CircuitBreaker.REJECTED);
+		Assert.assertEquals(breaker.remainingOpenMillis(), 0);
+	}
+
+	@Test
+	public void closesWhenAllProbesSucceed() {
+		CircuitBreaker breaker = halfOpen();
+		record(breaker, false);
+		Assert.assertEquals(breaker.state(), State.HALF_OPEN);
+		record(breaker, false);
+		Assert.assertEquals(breaker.state(), State.CLOSED);
+		Assert.assertEquals(breaker.failureRate(), 0.0);
+	}
+
+	@Test
+	public void reopensOnFailedProbe() {
+		CircuitBreaker breaker = halfOpen();
+		record(breaker, false, true);
+		Assert.assertEquals(breaker.state(), State.OPEN);
+		Assert.assertEquals(breaker.tryAcquire(), CircuitBreaker.REJECTED);
+	}
+
+	@Test
+	public void ignoredCallsRecordNoOutcome() {
+		CircuitBreaker breaker = breaker();
+		for (int i = 0; i < 10; i++) {
+			breaker.onIgnored(breaker.tryAcquire());
+		}
+		Assert.assertEquals(breaker.state(), State.CLOSED);
+		Assert.assertEquals(breaker.failureRate(), 0.0);
+	}
+
+	@Test
+	public void ignoredProbeHandsItsSlotBack() {
+		CircuitBreaker breaker = halfOpen();
+		long probe = breaker.tryAcquire();
+		Assert.assertNotEquals(breaker.tryAcquire(), CircuitBreaker.REJECTED);
+		Assert.assertEquals(breaker.tryAcquire(), CircuitBreaker.REJECTED);
+		breaker.onIgnored(probe);
+		Assert.assertEquals(breaker.state(), State.HALF_OPEN);
+		Assert.assertNotEquals(breaker.tryAcquire(), CircuitBreaker.REJECTED);
+	}
+
+	@Test
+	public void lateOutcomeOfACallAdmittedWhileClosedIsNotTakenForAProbe() {
+		CircuitBreaker breaker = breaker();
+		long slow = breaker.tryAcquire();
+		record(breaker, true, true, true, true);
+		advanceMillis(OPEN_MILLIS);
+		long probe = breaker.tryAcquire();
+		Assert.assertEquals(breaker.state(), State.HALF_OPEN);
+
+		// Neither a late failure nor two late successes of the slow call change the half-open state
+		breaker.onFailure(slow);
+		Assert.assertEquals(breaker.state(), State.HALF_OPEN);
+		breaker.onSuccess(slow);
+		breaker.onSuccess(slow);
+		Assert.assertEquals(breaker.state(), State.HALF_OPEN);
+		breaker.onIgnored(slow);
+		Assert.assertNotEquals(breaker.tryAcquire(), CircuitBreaker.REJECTED);
+		Assert.assertEquals(breaker.tryAcquire(), CircuitBreaker.REJECTED, "the stale permit gave no slot back");
+
+		breaker.onSuccess(probe);
+		Assert.assertEquals(breaker.state(), State.HALF_OPEN);
+	}
+
+	@Test
+	public void lateOutcomeFromBeforeTheLastCloseIsNotCounted() {
+		CircuitBreaker breaker = halfOpen();
+		long slowProbe = breaker.tryAcquire();
+		record(breaker, false);
+		breaker.onSuccess(slowProbe);
+		Assert.assertEquals(breaker.state(), State.CLOSED);
+
+		long stale = breaker.tryAcquire();
+		record(breaker, true, true, true, true);
+		Assert.assertEquals(breaker.state(), State.OPEN);
+		advanceMillis(OPEN_MILLIS);
+		record(breaker, false, false);
+		Assert.assertEquals(breaker.state(), State.CLOSED);
+		breaker.onFailure(stale);
+		Assert.assertEquals(breaker.failureRate(), 0.0);
+	}
+}
@@ -0,0 +1,137 @@
+package rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+
+public class CompressionInterceptorTest {
+
+	private static final String SCOPE = "CREATE_APPOINTMENT";
+
+	private static CompressionInterceptor gzippingRequests(int minBytes) {
+		System.setProperty("api.compression.gzipRequests", "true");
+		System.setProperty("api.compression.requestMinBytes", String.valueOf(minBytes));
+		try {
+			return new CompressionInterceptor();
+		} finally {
+			System.clearProperty("api.compression.gzipRequests");
+			System.clearProperty("api.compression.requestMinBytes");
+		}
+	}
+
+	private static ApiCall call(RequestSpecification request) {
+		return new ApiCall(ApiEndpoint.CREATE_APPOINTMENT, ApiEndpoint.CREATE_APPOINTMENT.pathTemplate(), request);
+	}
+
+	private static Response ok() {
+		return new ResponseBuilder().setStatusCode(200).setStatusLine("HTTP/1.1 200").setHeaders(new Headers())
+				.setBody("").build();
+	}
+
+	private static byte[] gzip(byte[] raw) throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+			gzip.write(raw);
+		}
+		return compressed.toByteArray();
+	}
+
+	private static byte[] gunzip(byte[] gzipped) throws IOException {
+		ByteArrayOutputStream raw = new ByteArrayOutputStream();
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+			byte[] buffer = new byte[8192];
+			for (int read; (read = in.read(buffer)) >= 0;) {
+				raw.write(buffer, 0, read);
+			}
+		}
+		return raw.toByteArray();
+	}
+
+	private static String repeated(int length) {
+		StringBuilder body = new StringBuilder(length);
+		while (body.length() < length) {
+			body.append("{\"status\":\"Scheduled\"},");
+		}
+		return body.substring(0, length);
+	}
+
+	@Test
+	public void countsWireAndDecodedBytesOfTheResponse() throws IOException {
+		byte[] decoded = repeated(20_000).getBytes(StandardCharsets.UTF_8);
+		byte[] wire = gzip(decoded);
+		long wireBefore = ApiMetrics.get(SCOPE, "response.wireBytes");
+		long decodedBefore = ApiMetrics.get(SCOPE, "response.decodedBytes");
+
+		// Reads the body the way the transports do: counted as received, decoded, then stored
+		Response response = new CompressionInterceptor().intercept(call(RestAssured.given()), c -> {
+			try {
+				InputStream body = new GZIPInputStream(WireCounter.current().counting(new ByteArrayInputStream(wire)));
+				return ResponseBodyStore.build(new ResponseBuilder().clone(ok()), body);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		Assert.assertEquals(response.asByteArray(), decoded);
+		Assert.assertEquals(ApiMetrics.get(SCOPE, "response.wireBytes"), wireBefore + wire.length);
+		Assert.assertEquals(ApiMetrics.get(SCOPE, "response.decodedBytes"), decodedBefore + decoded.length);
+		Assert.assertNull(WireCounter.current(), "the counter is unbound after the exchange");
+	}
+
+	@Test
+	public void streamedResponsesAreNotCounted() {
+		new CompressionInterceptor().intercept(call(RestAssured.given()).streaming(), c -> {
+			Assert.assertNull(WireCounter.current());
+			return ok();
+		});
+	}
+
+	@Test
+	public void gzipsLargeRequestBodies() throws IOException {
+		String body = repeated(4096);
+		long rawBefore = ApiMetrics.get(SCOPE, "request.rawBytes");
+		long wireBefore = ApiMetrics.get(SCOPE, "request.wireBytes");
+		AtomicReference<FilterableRequestSpecification> sent = new AtomicReference<>();
+
+		gzippingRequests(1024).intercept(call(RestAssured.given().body(body)), c -> {
+			sent.set((FilterableRequestSpecification) c.request());
+			return ok();
+		});
+
+		Assert.assertEquals(sent.get().getHeaders().getValue("Content-Encoding"), "gzip");
+		byte[] gzipped = sent.get().getBody();
+		Assert.assertEquals(new String(gunzip(gzipped), StandardCharsets.UTF_8), body);
+		Assert.assertEquals(ApiMetrics.get(SCOPE, "request.rawBytes"), rawBefore + body.length());
+		Assert.assertEquals(ApiMetrics.get(SCOPE, "request.wireBytes"), wireBefore + gzipped.length);
+	}
+
+	@Test
+	public void sendsSmallAndStreamedBodiesAsTheyAre() {
+		CompressionInterceptor interceptor = gzippingRequests(1024);
+		ApiCall small = call(RestAssured.given().body(repeated(100)));
+		ApiCall streamed = call(RestAssured.given().body(new ByteArrayInputStream(new byte[4096])));
+		for (ApiCall call : new ApiCall[] { small, streamed }) {
+			interceptor.intercept(call, c -> {
+				Assert.assertSame(c, call);
+				Assert.assertFalse(((FilterableRequestSpecification) c.request()).getHeaders()
+						.hasHeaderWithName("Content-Encoding"));
+				return ok();
+			});
+		}
+	}
+}
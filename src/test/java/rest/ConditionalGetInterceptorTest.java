@@ -0,0 +1,105 @@
+package rest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+
+public class ConditionalGetInterceptorTest {
+
+	private final List<Headers> sent = new ArrayList<>();
+	private ConditionalGetInterceptor interceptor;
+	// A fresh principal per test, since the stored validators are shared by all instances
+	private String user;
+
+	@BeforeMethod
+	public void enableRevalidation() {
+		System.setProperty("api.revalidation.enabled", "true");
+		try {
+			interceptor = new ConditionalGetInterceptor();
+		} finally {
+			System.clearProperty("api.revalidation.enabled");
+		}
+		sent.clear();
+		user = UUID.randomUUID().toString();
+	}
+
+	private ApiCall call(ApiEndpoint endpoint) {
+		return new ApiCall(endpoint, endpoint.pathTemplate(), RestAssured.given().header("Authorization", user));
+	}
+
+	private static Response response(int status, String body, Header... headers) {
+		return new ResponseBuilder().setStatusCode(status).setStatusLine("HTTP/1.1 " + status)
+				.setHeaders(new Headers(headers)).setBody(body).build();
+	}
+
+	// Serves body under the given ETag, and 304 to a request that already has it
+	private ApiInterceptor.Chain server(String etag, String body) {
+		return call -> {
+			Headers headers = ((FilterableRequestSpecification) call.request()).getHeaders();
+			sent.add(headers);
+			if (etag.equals(headers.getValue("If-None-Match"))) {
+				return response(304, "");
+			}
+			return response(200, body, new Header("ETag", etag),
+					new Header("Last-Modified", "Fri, 01 Mar 2024 12:00:00 GMT"));
+		};
+	}
+
+	@Test
+	public void notModifiedIsAnsweredFromTheStoredBody() {
+		long saved = ApiMetrics.get("MAIN_STORE", "revalidation.bytesSaved");
+		interceptor.intercept(call(ApiEndpoint.MAIN_STORE), server("\"v1\"", "{\"Store\":1}"));
+		Response response = interceptor.intercept(call(ApiEndpoint.MAIN_STORE), server("\"v1\"", "{\"Store\":1}"));
+
+		Assert.assertEquals(response.statusCode(), 200);
+		Assert.assertEquals(response.asString(), "{\"Store\":1}");
+		Assert.assertNull(sent.get(0).getValue("If-None-Match"));
+		Assert.assertEquals(sent.get(1).getValue("If-None-Match"), "\"v1\"");
+		Assert.assertEquals(sent.get(1).getValue("If-Modified-Since"), "Fri, 01 Mar 2024 12:00:00 GMT");
+		Assert.assertEquals(ApiMetrics.get("MAIN_STORE", "revalidation.bytesSaved"), saved + 11);
+	}
+
+	@Test
+	public void changedResourceReplacesTheStoredBody() {
+		interceptor.intercept(call(ApiEndpoint.MAIN_STORE), server("\"v1\"", "{\"Store\":1}"));
+		Response changed = interceptor.intercept(call(ApiEndpoint.MAIN_STORE), server("\"v2\"", "{\"Store\":2}"));
+		Assert.assertEquals(changed.asString(), "{\"Store\":2}");
+
+		interceptor.intercept(call(ApiEndpoint.MAIN_STORE), server("\"v2\"", "{\"Store\":2}"));
+		Assert.assertEquals(sent.get(2).getValue("If-None-Match"), "\"v2\"");
+	}
+
+	@Test
+	public void responsesWithoutValidatorsAreNotStored() {
+		ApiInterceptor.Chain plain = call -> {
+			sent.add(((FilterableRequestSpecification) call.request()).getHeaders());
+			return response(200, "{}");
+		};
+		interceptor.intercept(call(ApiEndpoint.MAIN_STORE), plain);
+		interceptor.intercept(call(ApiEndpoint.MAIN_STORE), plain);
+		Assert.assertFalse(sent.get(1).hasHeaderWithName("If-None-Match"));
+		Assert.assertFalse(sent.get(1).hasHeaderWithName("If-Modified-Since"));
+	}
+
+	@Test
+	public void onlyPlainGetsAreRevalidated() {
+		interceptor.intercept(call(ApiEndpoint.UPDATE_APPOINTMENT), server("\"v1\"", "{}"));
+		interceptor.intercept(call(ApiEndpoint.UPDATE_APPOINTMENT), server("\"v1\"", "{}"));
+		interceptor.intercept(call(ApiEndpoint.MAIN_STORE).streaming(), server("\"v1\"", "{}"));
+		interceptor.intercept(call(ApiEndpoint.MAIN_STORE).streaming(), server("\"v1\"", "{}"));
+		for (Headers headers : sent) {
+			Assert.assertFalse(headers.hasHeaderWithName("If-None-Match"));
+		}
+	}
+}
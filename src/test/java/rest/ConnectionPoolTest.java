@@ -0,0 +1,65 @@
+package rest;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import restConfig.ConfigManager;
+
+public class ConnectionPoolTest {
+
+	private final List<Socket> accepted = new CopyOnWriteArrayList<>();
+	private ServerSocket server;
+	private Thread acceptor;
+
+	// Accepts TCP connections and keeps them open; warm-up never sends a request
+	@BeforeMethod
+	public void startServer() throws IOException {
+		accepted.clear();
+		server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		acceptor = new Thread(() -> {
+			try {
+				while (true) {
+					accepted.add(server.accept());
+				}
+			} catch (IOException e) {
+				// Server closed
+			}
+		});
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void stopServer() throws Exception {
+		server.close();
+		acceptor.join();
+		for (Socket socket : accepted) {
+			socket.close();
+		}
+	}
+
+	@Test
+	public void warmUpOpensConnectionsThatLaterWarmUpsReuse() {
+		String url = "http://127.0.0.1:" + server.getLocalPort() + "/api";
+		Assert.assertEquals(ConnectionPool.getInstance().warmUp(url, 3), 3);
+		// All three are idle in the pool now, so there is nothing left to open
+		Assert.assertEquals(ConnectionPool.getInstance().warmUp(url, 3), 0);
+		Assert.assertEquals(ConnectionPool.getInstance().warmUp(url, 4), 1);
+	}
+
+	@Test
+	public void warmUpIsCappedAtMaxPerRoute() {
+		String url = "http://127.0.0.1:" + server.getLocalPort() + "/api";
+		Assert.assertEquals(ConnectionPool.getInstance().warmUp(url, 1000),
+				ConfigManager.getIntProperty("api.pool.maxPerRoute", 20));
+	}
+}
@@ -0,0 +1,218 @@
+package rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongFunction;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+public class FileDownloadTest {
+
+	// Smaller than the file and not a divisor of it, so the last buffer is partly filled
+	private static final int BUFFER_BYTES = 1000;
+
+	private final byte[] content = new byte[10_500];
+	private final List<Long> offsets = new ArrayList<>();
+	private Path dir;
+	private Path target;
+
+	@BeforeMethod
+	public void createTarget() throws IOException {
+		new Random(24).nextBytes(content);
+		offsets.clear();
+		dir = Files.createTempDirectory("download-test");
+		target = dir.resolve("file.bin");
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void deleteTarget() throws IOException {
+		Files.deleteIfExists(target);
+		Files.deleteIfExists(dir);
+	}
+
+	private static Response response(int status, byte[] body, Header... headers) {
+		return new ResponseBuilder().setStatusCode(status).setStatusLine("HTTP/1.1 " + status)
+				.setHeaders(new Headers(headers)).setBody(new ByteArrayInputStream(body)).build();
+	}
+
+	private static Header contentLength(long length) {
+		return new Header("Content-Length", String.valueOf(length));
+	}
+
+	// A server that honours Range
+	private LongFunction<Response> rangeServer() {
+		return offset -> {
+			offsets.add(offset);
+			if (offset == 0) {
+				return response(200, content, contentLength(content.length));
+			}
+			if (offset >= content.length) {
+				return response(416, new byte[0], new Header("Content-Range", "bytes */" + content.length));
+			}
+			byte[] rest = Arrays.copyOfRange(content, (int) offset, content.length);
+			return response(206, rest, contentLength(rest.length),
+					new Header("Content-Range", "bytes " + offset + "-" + (content.length - 1) + "/" + content.length));
+		};
+	}
+
+	private DownloadResult fetch(boolean resume, LongFunction<Response> send) throws IOException {
+		return FileDownload.fetch(target, resume, BUFFER_BYTES, send);
+	}
+
+	private String sha256() throws Exception {
+		StringBuilder hex = new StringBuilder();
+		for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+
+	private void writePart(int length) throws IOException {
+		Files.write(target, Arrays.copyOf(content, length));
+	}
+
+	@Test
+	public void freshDownloadWritesAndHashesTheBody() throws Exception {
+		DownloadResult result = fetch(true, rangeServer());
+		Assert.assertEquals(offsets, Arrays.asList(0L));
+		Assert.assertEquals(result.statusCode(), 200);
+		Assert.assertEquals(result.bytesReceived(), content.length);
+		Assert.assertEquals(result.size(), content.length);
+		Assert.assertFalse(result.resumed());
+		Assert.assertEquals(result.sha256(), sha256());
+		Assert.assertEquals(Files.readAllBytes(target), content);
+	}
+
+	@Test
+	public void partialContentIsAppended() throws Exception {
+		writePart(4321);
+		DownloadResult result = fetch(true, rangeServer());
+		Assert.assertEquals(offsets, Arrays.asList(4321L));
+		Assert.assertEquals(result.statusCode(), 206);
+		Assert.assertEquals(result.bytesReceived(), content.length - 4321);
+		Assert.assertEquals(result.size(), content.length);
+		Assert.assertTrue(result.resumed());
+		Assert.assertEquals(result.sha256(), sha256(), "hash covers the bytes already on disk");
+		Assert.assertEquals(Files.readAllBytes(target), content);
+	}
+
+	@Test
+	public void ignoredRangeReplacesTheFile() throws Exception {
+		Files.write(target, new byte[] { 1, 2, 3 });
+		DownloadResult result = fetch(true, offset -> {
+			offsets.add(offset);
+			return response(200, content, contentLength(content.length));
+		});
+		Assert.assertEquals(offsets, Arrays.asList(3L));
+		Assert.assertEquals(result.statusCode(), 200);
+		Assert.assertFalse(result.resumed());
+		Assert.assertEquals(result.sha256(), sha256());
+		Assert.assertEquals(Files.readAllBytes(target), content);
+	}
+
+	@Test
+	public void unsatisfiableRangeMeansAlreadyComplete() throws Exception {
+		writePart(content.length);
+		DownloadResult result = fetch(true, rangeServer());
+		Assert.assertEquals(offsets, Arrays.asList((long) content.length));
+		Assert.assertEquals(result.statusCode(), 416);
+		Assert.assertEquals(result.bytesReceived(), 0);
+		Assert.assertEquals(result.size(), content.length);
+		Assert.assertTrue(result.resumed());
+		Assert.assertEquals(result.sha256(), sha256());
+	}
+
+	@Test
+	public void unsatisfiableRangeOfAnotherSizeStartsOver() throws Exception {
+		Files.write(target, new byte[content.length + 5]);
+		DownloadResult result = fetch(true, rangeServer());
+		Assert.assertEquals(offsets, Arrays.asList((long) content.length + 5, 0L));
+		Assert.assertEquals(result.statusCode(), 200);
+		Assert.assertEquals(Files.readAllBytes(target), content);
+		Assert.assertEquals(result.sha256(), sha256());
+	}
+
+	@Test
+	public void resumeDisabledFetchesEverything() throws Exception {
+		writePart(4321);
+		DownloadResult result = fetch(false, rangeServer());
+		Assert.assertEquals(offsets, Arrays.asList(0L));
+		Assert.assertEquals(result.bytesReceived(), content.length);
+		Assert.assertEquals(Files.readAllBytes(target), content);
+	}
+
+	@Test
+	public void truncatedBodyIsKeptForTheNextAttempt() throws Exception {
+		try {
+			fetch(true, offset -> response(200, Arrays.copyOf(content, 6000), contentLength(content.length)));
+			Assert.fail("a body shorter than Content-Length must fail");
+		} catch (IOException expected) {
+			Assert.assertTrue(expected.getMessage().contains("6000 of " + content.length), expected.getMessage());
+		}
+		Assert.assertEquals(Files.size(target), 6000);
+
+		DownloadResult result = fetch(true, rangeServer());
+		Assert.assertEquals(offsets, Arrays.asList(6000L));
+		Assert.assertEquals(result.sha256(), sha256());
+		Assert.assertEquals(Files.readAllBytes(target), content);
+	}
+
+	@Test
+	public void bytesReceivedBeforeAFailedReadAreKept() throws Exception {
+		// 6500 bytes arrive, the last 500 of them still in the buffer when the connection drops
+		InputStream failing = new SequenceInputStream(new ByteArrayInputStream(Arrays.copyOf(content, 6500)),
+				new InputStream() {
+					@Override
+					public int read() throws IOException {
+						throw new IOException("Connection reset");
+					}
+				});
+		try {
+			fetch(true, offset -> new ResponseBuilder().setStatusCode(200).setStatusLine("HTTP/1.1 200")
+					.setHeaders(new Headers(contentLength(content.length))).setBody(failing).build());
+			Assert.fail("the failed read must surface");
+		} catch (IOException expected) {
+			Assert.assertEquals(expected.getMessage(), "Connection reset");
+		}
+		Assert.assertEquals(Files.readAllBytes(target), Arrays.copyOf(content, 6500));
+
+		DownloadResult result = fetch(true, rangeServer());
+		Assert.assertEquals(offsets, Arrays.asList(6500L));
+		Assert.assertEquals(result.sha256(), sha256());
+		Assert.assertEquals(Files.readAllBytes(target), content);
+	}
+
+	@Test(expectedExceptions = IOException.class)
+	public void rejectsContentRangeThatDoesNotResumeTheFile() throws Exception {
+		writePart(4321);
+		fetch(true, offset -> response(206, new byte[10], contentLength(10),
+				new Header("Content-Range", "bytes 0-9/" + content.length)));
+	}
+
+	@Test
+	public void errorStatusLeavesTheFileAlone() throws Exception {
+		writePart(4321);
+		DownloadResult result = fetch(true, offset -> response(404, "{}".getBytes()));
+		Assert.assertEquals(result.statusCode(), 404);
+		Assert.assertNull(result.sha256());
+		Assert.assertEquals(result.size(), 4321);
+		Assert.assertEquals(Files.size(target), 4321);
+	}
+}
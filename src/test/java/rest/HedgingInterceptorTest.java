@@ -0,0 +1,152 @@
+package rest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+public class HedgingInterceptorTest {
+
+	// Long enough that a hedge can only mean the primary is blocked
+	private static final long NEVER_MILLIS = 600_000;
+
+	private final AtomicInteger exchanges = new AtomicInteger();
+	private CountDownLatch releasePrimary;
+
+	@BeforeMethod
+	public void reset() {
+		exchanges.set(0);
+		releasePrimary = new CountDownLatch(1);
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void release() {
+		releasePrimary.countDown();
+	}
+
+	// Always waits delayMillis before hedging: minSamples is out of reach
+	private static HedgingInterceptor hedging(long delayMillis) {
+		System.setProperty("api.hedging.enabled", "true");
+		System.setProperty("api.hedging.delayMs", String.valueOf(delayMillis));
+		System.setProperty("api.hedging.minSamples", String.valueOf(Long.MAX_VALUE));
+		try {
+			return new HedgingInterceptor();
+		} finally {
+			System.clearProperty("api.hedging.enabled");
+			System.clearProperty("api.hedging.delayMs");
+			System.clearProperty("api.hedging.minSamples");
+		}
+	}
+
+	private static ApiCall call(ApiEndpoint endpoint) {
+		return new ApiCall(endpoint, endpoint.pathTemplate(), RestAssured.given());
+	}
+
+	private static Response response(String body) {
+		return new ResponseBuilder().setStatusCode(200).setStatusLine("HTTP/1.1 200").setHeaders(new Headers())
+				.setBody(body).build();
+	}
+
+	private void awaitRelease() {
+		try {
+			releasePrimary.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test
+	public void fastPrimaryIsNotHedged() {
+		Response response = hedging(NEVER_MILLIS).intercept(call(ApiEndpoint.BILLING_COUNTERS), c -> {
+			exchanges.incrementAndGet();
+			return response("primary");
+		});
+		Assert.assertEquals(response.asString(), "primary");
+		Assert.assertEquals(exchanges.get(), 1);
+	}
+
+	@Test
+	public void hedgeAnswersForAStuckPrimary() {
+		long won = ApiMetrics.get("BILLING_COUNTERS", "hedge.won");
+		Response response = hedging(1).intercept(call(ApiEndpoint.BILLING_COUNTERS), c -> {
+			if (exchanges.incrementAndGet() == 1) {
+				awaitRelease();
+				return response("primary");
+			}
+			return response("hedge");
+		});
+		Assert.assertEquals(response.asString(), "hedge");
+		Assert.assertEquals(exchanges.get(), 2);
+		Assert.assertEquals(ApiMetrics.get("BILLING_COUNTERS", "hedge.won"), won + 1);
+	}
+
+	@Test
+	public void failedHedgeLeavesThePrimaryToAnswer() {
+		Response response = hedging(1).intercept(call(ApiEndpoint.BILLING_COUNTERS), c -> {
+			if (exchanges.incrementAndGet() == 1) {
+				awaitRelease();
+				return response("primary");
+			}
+			releasePrimary.countDown();
+			throw new IllegalStateException("hedge refused");
+		});
+		Assert.assertEquals(response.asString(), "primary");
+	}
+
+	@Test
+	public void failsOnlyWhenBothAttemptsFail() {
+		IllegalStateException primaryFailure = new IllegalStateException("primary refused");
+		IllegalStateException hedgeFailure = new IllegalStateException("hedge refused");
+		try {
+			hedging(1).intercept(call(ApiEndpoint.BILLING_COUNTERS), c -> {
+				if (exchanges.incrementAndGet() == 1) {
+					awaitRelease();
+					throw primaryFailure;
+				}
+				releasePrimary.countDown();
+				throw hedgeFailure;
+			});
+			Assert.fail("both attempts failed");
+		} catch (IllegalStateException e) {
+			Assert.assertTrue(e == primaryFailure || e == hedgeFailure, e.toString());
+		}
+	}
+
+	@Test
+	public void primaryFailureBeforeTheDelayIsNotHedged() {
+		IllegalStateException failure = new IllegalStateException("refused");
+		try {
+			hedging(NEVER_MILLIS).intercept(call(ApiEndpoint.BILLING_COUNTERS), c -> {
+				exchanges.incrementAndGet();
+				throw failure;
+			});
+			Assert.fail("the failure must surface");
+		} catch (IllegalStateException e) {
+			Assert.assertSame(e, failure);
+		}
+		Assert.assertEquals(exchanges.get(), 1);
+	}
+
+	@Test
+	public void nonIdempotentAndStreamingCallsAreNeverHedged() {
+		Thread caller = Thread.currentThread();
+		HedgingInterceptor interceptor = hedging(1);
+		for (ApiCall call : new ApiCall[] { call(ApiEndpoint.CREATE_APPOINTMENT),
+				call(ApiEndpoint.BILLING_COUNTERS).streaming() }) {
+			interceptor.intercept(call, c -> {
+				Assert.assertSame(Thread.currentThread(), caller);
+				exchanges.incrementAndGet();
+				return response("direct");
+			});
+		}
+		Assert.assertEquals(exchanges.get(), 2);
+	}
+}
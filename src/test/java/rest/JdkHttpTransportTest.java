@@ -0,0 +1,133 @@
+package rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.restassured.RestAssured;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+public class JdkHttpTransportTest {
+
+	private HttpServer server;
+	private JdkHttpTransport transport;
+
+	@BeforeClass
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		// Echoes method, content type, a header and the body
+		server.createContext("/echo", exchange -> {
+			String echo = exchange.getRequestMethod() + " " + exchange.getRequestHeaders().getFirst("Content-Type")
+					+ " " + exchange.getRequestHeaders().getFirst("X-Test") + " " + readAll(exchange.getRequestBody());
+			reply(exchange, 200, echo.getBytes(StandardCharsets.UTF_8));
+		});
+		server.createContext("/gzip", exchange -> {
+			ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+			try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+				gzip.write("{\"Status\":\"OK\"}".getBytes(StandardCharsets.UTF_8));
+			}
+			exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			reply(exchange, 200, gzipped.toByteArray());
+		});
+		server.start();
+		transport = new JdkHttpTransport();
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopServer() {
+		server.stop(0);
+	}
+
+	private static String readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1024];
+		for (int read; (read = in.read(buffer)) >= 0;) {
+			out.write(buffer, 0, read);
+		}
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static void reply(HttpExchange exchange, int status, byte[] body) throws IOException {
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private RequestSpecification spec() {
+		return RestAssured.given().baseUri("http://127.0.0.1:" + server.getAddress().getPort());
+	}
+
+	@Test
+	public void sendsMethodHeadersAndBody() {
+		Response response = transport.execute(Method.POST, "/echo",
+				spec().contentType("application/json").header("X-Test", "yes").body("{\"a\":1}"));
+		Assert.assertEquals(response.statusCode(), 200);
+		Assert.assertTrue(response.asString().startsWith("POST application/json"), response.asString());
+		Assert.assertTrue(response.asString().endsWith(" yes {\"a\":1}"), response.asString());
+	}
+
+	@Test
+	public void sendsByteArrayBodies() {
+		Response response = transport.execute(Method.PUT, "/echo",
+				spec().body("bytes".getBytes(StandardCharsets.UTF_8)));
+		Assert.assertTrue(response.asString().endsWith(" bytes"), response.asString());
+	}
+
+	@Test
+	public void decodesGzipAndDropsTheEncodingHeaders() {
+		Response response = transport.execute(Method.GET, "/gzip", spec());
+		Assert.assertEquals(response.jsonPath().getString("Status"), "OK");
+		Assert.assertNull(response.getHeader("Content-Encoding"));
+		Assert.assertNull(response.getHeader("Content-Length"));
+		// Buffered, so it can be read again
+		Assert.assertEquals(response.asString(), "{\"Status\":\"OK\"}");
+	}
+
+	@Test
+	public void streamedBodyIsLeftForTheCaller() throws IOException {
+		Response response = transport.stream(Method.GET, "/gzip", spec());
+		try (InputStream body = response.asInputStream()) {
+			Assert.assertEquals(readAll(body), "{\"Status\":\"OK\"}");
+		}
+	}
+
+	@Test
+	public void rejectsWhatItCannotTranslate() {
+		try {
+			transport.execute(Method.GET, "/echo", spec().queryParam("a", 1).cookie("session", "x"));
+			Assert.fail("query parameters and cookies must be rejected");
+		} catch (IllegalArgumentException expected) {
+			Assert.assertTrue(expected.getMessage().contains("cookies, query parameters"), expected.getMessage());
+		}
+	}
+
+	@Test
+	public void refusesToStartWithErrorLogging() {
+		System.setProperty("api.log.errors", "true");
+		try {
+			new JdkHttpTransport();
+			Assert.fail("api.log.errors must be refused");
+		} catch (IllegalStateException expected) {
+			Assert.assertTrue(expected.getMessage().contains("api.log.errors"), expected.getMessage());
+		} finally {
+			System.clearProperty("api.log.errors");
+		}
+	}
+}
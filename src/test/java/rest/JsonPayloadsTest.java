@@ -0,0 +1,44 @@
+package rest;
+
+import java.nio.charset.StandardCharsets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import apiRequests.CurrencyRequest;
+
+public class JsonPayloadsTest {
+
+	@Test
+	public void writesUpperCamelCaseAndLeavesOutNulls() {
+		CurrencyRequest currency = new CurrencyRequest();
+		currency.setCurrencyCode("CAD");
+		currency.setCreatedBy(1);
+		currency.setIsActive(false);
+		Assert.assertEquals(new String(JsonPayloads.toBytes(currency), StandardCharsets.UTF_8),
+				"{\"CurrencyCode\":\"CAD\",\"CreatedBy\":1,\"IsActive\":false}");
+	}
+
+	@Test
+	public void escapesStrings() {
+		CurrencyRequest currency = new CurrencyRequest();
+		currency.setDescription("Canadian \"Loonie\" \\ dollar");
+		Assert.assertEquals(new String(JsonPayloads.toBytes(currency), StandardCharsets.UTF_8),
+				"{\"Description\":\"Canadian \\\"Loonie\\\" \\\\ dollar\"}");
+	}
+
+	@Test
+	public void convertsMapValues() {
+		Assert.assertEquals(JsonPayloads.toInteger(" 60 "), Integer.valueOf(60));
+		Assert.assertNull(JsonPayloads.toInteger(""));
+		Assert.assertNull(JsonPayloads.toInteger(null));
+		Assert.assertEquals(JsonPayloads.toBoolean("true"), Boolean.TRUE);
+		Assert.assertEquals(JsonPayloads.toBoolean("no"), Boolean.FALSE);
+		Assert.assertNull(JsonPayloads.toBoolean(" "));
+	}
+
+	@Test(expectedExceptions = NumberFormatException.class)
+	public void rejectsNonNumericInteger() {
+		JsonPayloads.toInteger("sixty");
+	}
+}
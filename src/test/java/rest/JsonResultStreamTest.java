@@ -0,0 +1,83 @@
+package rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+public class JsonResultStreamTest {
+
+	private static final TypeReference<Map<String, Object>> ELEMENT = new TypeReference<Map<String, Object>>() {
+	};
+
+	private static InputStream json(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void streamsArrayElementsInOrderAndCollectsScalars() {
+		List<Map<String, Object>> elements = new ArrayList<>();
+		StreamedResults results = JsonResultStream.forEach(
+				json("{\"Status\":\"OK\",\"Meta\":{\"Page\":1},\"Results\":[{\"PatientId\":1},{\"PatientId\":2},"
+						+ "{\"PatientId\":3,\"Tags\":[\"a\"]}],\"ErrorMessage\":null}"),
+				"Results", ELEMENT, elements::add);
+
+		Assert.assertEquals(results.count(), 3);
+		Assert.assertEquals(elements.size(), 3);
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals(elements.get(i).get("PatientId"), i + 1);
+		}
+		Assert.assertEquals(results.field("Status"), "OK");
+		Assert.assertTrue(results.fields().containsKey("ErrorMessage"));
+		Assert.assertNull(results.field("ErrorMessage"));
+		Assert.assertFalse(results.fields().containsKey("Meta"), "nested objects are skipped");
+		Assert.assertEquals(results.statusCode(), 0);
+	}
+
+	@Test
+	public void treatsSingleObjectAsOneElement() {
+		List<Map<String, Object>> elements = new ArrayList<>();
+		StreamedResults results = JsonResultStream.forEach(json("{\"Status\":\"OK\",\"Results\":{\"StoreId\":9}}"),
+				"Results", ELEMENT, elements::add);
+		Assert.assertEquals(results.count(), 1);
+		Assert.assertEquals(elements.get(0).get("StoreId"), 9);
+	}
+
+	@Test
+	public void reportsNoElementsWhenArrayIsMissingOrEmpty() {
+		Assert.assertEquals(JsonResultStream.forEach(json("{\"Status\":\"Failed\"}"), "Results", ELEMENT, e -> {
+			throw new AssertionError("unexpected element " + e);
+		}).count(), 0);
+		Assert.assertEquals(JsonResultStream.forEach(json("{\"Results\":[]}"), "Results", ELEMENT, e -> {
+			throw new AssertionError("unexpected element " + e);
+		}).count(), 0);
+	}
+
+	@Test
+	public void closesTheBody() {
+		AtomicBoolean closed = new AtomicBoolean();
+		InputStream body = new ByteArrayInputStream("{\"Results\":[1]}".getBytes(StandardCharsets.UTF_8)) {
+			@Override
+			public void close() {
+				closed.set(true);
+			}
+		};
+		JsonResultStream.forEach(body, "Results", new TypeReference<Integer>() {
+		}, value -> Assert.assertEquals(value, Integer.valueOf(1)));
+		Assert.assertTrue(closed.get());
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void rejectsBodyThatIsNotAnObject() {
+		JsonResultStream.forEach(json("[{\"PatientId\":1}]"), "Results", ELEMENT, e -> {
+		});
+	}
+}
@@ -0,0 +1,116 @@
+package rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class MultipartFileStreamTest {
+
+	// Not a divisor of the file size, so the last chunk is partly filled
+	private static final int CHUNK_BYTES = 4096;
+
+	private final byte[] content = new byte[50_000];
+	private Path dir;
+	private Path file;
+
+	@BeforeMethod
+	public void createFile() throws IOException {
+		new Random(23).nextBytes(content);
+		dir = Files.createTempDirectory("upload-test");
+		file = dir.resolve("scan \"1\".bin");
+		Files.write(file, content);
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void deleteFile() throws IOException {
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(dir);
+	}
+
+	@Test
+	public void emitsOneWellFramedFilePart() throws IOException {
+		byte[] body;
+		String contentType;
+		try (MultipartFileStream stream = new MultipartFileStream(file, "file", CHUNK_BYTES)) {
+			contentType = stream.contentType();
+			body = readAll(stream, 1000);
+			Assert.assertEquals(stream.bytesRead(), body.length);
+			Assert.assertEquals(stream.length(), body.length);
+		}
+
+		Assert.assertTrue(contentType.startsWith("multipart/form-data; boundary="), contentType);
+		String boundary = contentType.substring(contentType.indexOf('=') + 1);
+		String delimiter = "--" + boundary + "\r\n";
+		String closing = "\r\n--" + boundary + "--\r\n";
+
+		int headersEnd = indexOf(body, "\r\n\r\n".getBytes(StandardCharsets.US_ASCII)) + 4;
+		String headers = new String(body, 0, headersEnd, StandardCharsets.UTF_8);
+		Assert.assertTrue(headers.startsWith(delimiter), headers);
+		Assert.assertTrue(headers.contains(
+				"Content-Disposition: form-data; name=\"file\"; filename=\"scan %221%22.bin\"\r\n"), headers);
+		Assert.assertTrue(headers.contains("Content-Type: "), headers);
+
+		int fileEnd = body.length - closing.length();
+		Assert.assertEquals(new String(body, fileEnd, closing.length(), StandardCharsets.US_ASCII), closing);
+		Assert.assertEquals(Arrays.copyOfRange(body, headersEnd, fileEnd), content);
+	}
+
+	@Test
+	public void singleByteReadsProduceTheSameBody() throws IOException {
+		try (MultipartFileStream stream = new MultipartFileStream(file, "file", CHUNK_BYTES)) {
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			for (int b; (b = stream.read()) >= 0;) {
+				body.write(b);
+			}
+			Assert.assertEquals(body.size(), stream.length());
+			Assert.assertEquals(stream.bytesRead(), stream.length());
+			Assert.assertEquals(stream.read(), -1);
+		}
+	}
+
+	@Test
+	public void countsBytesAsTheyAreHandedOut() throws IOException {
+		try (MultipartFileStream stream = new MultipartFileStream(file, "file", CHUNK_BYTES)) {
+			Assert.assertEquals(stream.bytesRead(), 0);
+			Assert.assertEquals(stream.elapsedNanos(), 0);
+			byte[] buffer = new byte[10];
+			Assert.assertEquals(stream.read(buffer, 0, 10), 10);
+			Assert.assertEquals(stream.bytesRead(), 10);
+			Assert.assertEquals(stream.read(buffer, 0, 0), 0);
+			Assert.assertEquals(stream.bytesRead(), 10);
+			readAll(stream, 8192);
+			Assert.assertEquals(stream.bytesRead(), stream.length());
+			Assert.assertTrue(stream.elapsedNanos() >= 0);
+		}
+	}
+
+	private static byte[] readAll(MultipartFileStream stream, int bufferBytes) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[bufferBytes];
+		for (int read; (read = stream.read(buffer, 0, buffer.length)) >= 0;) {
+			body.write(buffer, 0, read);
+		}
+		return body.toByteArray();
+	}
+
+	private static int indexOf(byte[] haystack, byte[] needle) {
+		outer: for (int i = 0; i <= haystack.length - needle.length; i++) {
+			for (int j = 0; j < needle.length; j++) {
+				if (haystack[i + j] != needle[j]) {
+					continue outer;
+				}
+			}
+			return i;
+		}
+		return -1;
+	}
+}
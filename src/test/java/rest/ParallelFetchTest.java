@@ -0,0 +1,211 @@
+package rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class ParallelFetchTest {
+
+	private static final int PAGE_SIZE = 5;
+
+	private final Set<String> opened = ConcurrentHashMap.newKeySet();
+	private final Set<String> closed = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private final Semaphore closes = new Semaphore(0);
+
+	@BeforeMethod
+	public void reset() {
+		opened.clear();
+		closed.clear();
+		closes.drainPermits();
+		maxInFlight.set(0);
+	}
+
+	private InputStream slice(String path, int... ids) {
+		StringBuilder json = new StringBuilder();
+		for (int i = 0; i < ids.length; i++) {
+			json.append(i == 0 ? "" : ",").append("{\"Id\":").append(ids[i]).append('}');
+		}
+		return slice(path, json.toString());
+	}
+
+	private InputStream slice(String path, String elements) {
+		opened.add(path);
+		String json = "{\"Status\":\"OK\",\"Results\":[" + elements + "]}";
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)) {
+			@Override
+			public void close() {
+				if (closed.add(path)) {
+					closes.release();
+				}
+			}
+		};
+	}
+
+	// Pages of PAGE_SIZE ids out of 0..total-1
+	private Function<String, InputStream> pagedList(int total) {
+		return path -> {
+			int page = Integer.parseInt(path.substring(path.indexOf('=') + 1));
+			int active = inFlight.incrementAndGet();
+			maxInFlight.accumulateAndGet(active, Math::max);
+			try {
+				int from = page * PAGE_SIZE;
+				int to = Math.max(from, Math.min(total, from + PAGE_SIZE));
+				int[] ids = new int[to - from];
+				for (int i = 0; i < ids.length; i++) {
+					ids[i] = from + i;
+				}
+				return slice(path, ids);
+			} finally {
+				inFlight.decrementAndGet();
+			}
+		};
+	}
+
+	// Slices still in flight when a fetch ends are closed once they arrive, on the exchange pool
+	private void assertAllClosed(int slices) throws InterruptedException {
+		Assert.assertTrue(closes.tryAcquire(slices, 10, TimeUnit.SECONDS), "closed " + closed);
+		Assert.assertEquals(closed, opened);
+		Assert.assertEquals(opened.size(), slices);
+	}
+
+	private static List<Object> ids(List<Map<String, Object>> elements) {
+		List<Object> ids = new ArrayList<>();
+		for (Map<String, Object> element : elements) {
+			ids.add(element.get("Id"));
+		}
+		return ids;
+	}
+
+	@Test
+	public void mergesPartitionsInOrderWithBoundedParallelism() throws InterruptedException {
+		List<Map<String, Object>> elements = new ArrayList<>();
+		List<String> paths = Arrays.asList("/list?page=0", "/list?page=1", "/list?page=2", "/list?page=3",
+				"/list?page=4");
+		ParallelFetchResult result = new ParallelFetch("TEST", 2, pagedList(23)).partitions(paths, elements::add);
+
+		Assert.assertEquals(result.slices(), 5);
+		Assert.assertEquals(result.count(), 23);
+		Assert.assertFalse(result.lastPageReached());
+		List<Object> expected = new ArrayList<>();
+		for (int i = 0; i < 23; i++) {
+			expected.add(i);
+		}
+		Assert.assertEquals(ids(elements), expected);
+		Assert.assertTrue(maxInFlight.get() <= 2, "in flight: " + maxInFlight);
+		assertAllClosed(5);
+	}
+
+	@Test
+	public void stopsAtShortPageAndClosesPagesBeyondIt() throws InterruptedException {
+		List<Map<String, Object>> elements = new ArrayList<>();
+		ParallelFetchResult result = new ParallelFetch("TEST", 4, pagedList(12)).pages(page -> "/list?page=" + page,
+				PAGE_SIZE, 100, null, elements::add);
+
+		Assert.assertTrue(result.lastPageReached());
+		Assert.assertEquals(result.slices(), 3);
+		Assert.assertEquals(result.count(), 12);
+		Assert.assertEquals(elements.size(), 12);
+		// Pages 3 to 5 were already requested when page 2 came back short
+		assertAllClosed(6);
+	}
+
+	@Test
+	public void dropsElementPushedOntoTheNextPage() throws InterruptedException {
+		List<Map<String, Object>> elements = new ArrayList<>();
+		// An insert between the two requests moved 4 from page 0 onto page 1
+		ParallelFetchResult result = new ParallelFetch("TEST", 2, path -> path.endsWith("0") ? slice(path, 0, 1, 2, 3, 4)
+				: path.endsWith("1") ? slice(path, 4, 5, 6, 7, 8) : slice(path, 9, 1))
+				.pages(page -> "/list?page=" + page, PAGE_SIZE, 100, "Id", elements::add);
+
+		Assert.assertEquals(result.duplicates(), 1);
+		// Only the previous page's keys are kept, so 1 on page 2 is not a duplicate any more
+		Assert.assertEquals(ids(elements), Arrays.<Object>asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 1));
+		Assert.assertEquals(result.count(), 11);
+		assertAllClosed(4);
+	}
+
+	@Test
+	public void failedSliceFailsTheFetchAndReleasesTheOthers() throws InterruptedException {
+		ParallelFetch fetch = new ParallelFetch("TEST", 3, path -> {
+			if (path.endsWith("0")) {
+				throw new IllegalStateException(path + " returned 500");
+			}
+			return slice(path, 1);
+		});
+		try {
+			fetch.partitions(Arrays.asList("/list?page=0", "/list?page=1", "/list?page=2"), element -> {
+			});
+			Assert.fail("the failed slice must surface");
+		} catch (IllegalStateException expected) {
+			Assert.assertEquals(expected.getMessage(), "/list?page=0 returned 500");
+		}
+		assertAllClosed(2);
+	}
+
+	@Test
+	public void stopsAfterMaxPagesWhenNoPageComesBackShort() throws InterruptedException {
+		long incomplete = ApiMetrics.get("TEST", "fetch.incomplete");
+		ParallelFetchResult result = new ParallelFetch("TEST", 3, pagedList(Integer.MAX_VALUE))
+				.pages(page -> "/list?page=" + page, PAGE_SIZE, 7, "Id", element -> {
+				});
+
+		Assert.assertFalse(result.lastPageReached());
+		Assert.assertEquals(result.slices(), 7);
+		Assert.assertEquals(result.count(), 35);
+		Assert.assertEquals(ApiMetrics.get("TEST", "fetch.incomplete"), incomplete + 1);
+		assertAllClosed(7);
+	}
+
+	@Test
+	public void stopsWhenTheServerIgnoresThePageParameter() throws InterruptedException {
+		List<Map<String, Object>> elements = new ArrayList<>();
+		ParallelFetchResult result = new ParallelFetch("TEST", 2, path -> slice(path, 0, 1, 2, 3, 4))
+				.pages(page -> "/list?page=" + page, PAGE_SIZE, 100, "Id", elements::add);
+
+		Assert.assertFalse(result.lastPageReached());
+		Assert.assertEquals(result.slices(), 2);
+		Assert.assertEquals(result.duplicates(), 5);
+		Assert.assertEquals(ids(elements), Arrays.<Object>asList(0, 1, 2, 3, 4));
+		assertAllClosed(3);
+	}
+
+	@Test
+	public void keepsElementsWithoutTheKeyField() {
+		List<Map<String, Object>> elements = new ArrayList<>();
+		ParallelFetchResult result = new ParallelFetch("TEST", 1,
+				path -> slice(path, "{\"Id\":1},{\"Name\":\"a\"},{\"Name\":\"b\"},{\"Id\":null}"))
+				.pages(page -> "/list?page=" + page, PAGE_SIZE, 100, "Id", elements::add);
+
+		Assert.assertTrue(result.lastPageReached());
+		Assert.assertEquals(result.duplicates(), 0);
+		Assert.assertEquals(elements.size(), 4);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsMaxPagesBelowOne() {
+		new ParallelFetch("TEST", 1, path -> slice(path)).pages(page -> "/list?page=" + page, PAGE_SIZE, 0, null,
+				element -> {
+				});
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsParallelismBelowOne() {
+		new ParallelFetch("TEST", 0, path -> slice(path));
+	}
+}
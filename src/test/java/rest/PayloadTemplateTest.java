@@ -0,0 +1,96 @@
+package rest;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class PayloadTemplateTest {
+
+	private static final String APPOINTMENT_FILE = "src/main/resources/testData/createAppointmentData.json";
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final PayloadTemplate appointment = PayloadTemplate.fromFile(APPOINTMENT_FILE, "FirstName",
+			"ContactNumber", "Age");
+
+	private static String text(byte[] body) {
+		return new String(body, StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void slotsFollowDocumentOrder() {
+		Assert.assertEquals(appointment.slotNames(), Arrays.asList("FirstName", "Age", "ContactNumber"));
+	}
+
+	@Test
+	public void rendersStaticFieldsAndSlotValues() throws Exception {
+		JsonNode body = MAPPER.readTree(appointment.render("Jane", 34, "9876543210"));
+		JsonNode original = MAPPER.readTree(new File(APPOINTMENT_FILE));
+
+		Assert.assertEquals(body.get("FirstName").asText(), "Jane");
+		Assert.assertTrue(body.get("Age").isInt());
+		Assert.assertEquals(body.get("Age").asInt(), 34);
+		Assert.assertEquals(body.get("ContactNumber").asText(), "9876543210");
+		Assert.assertEquals(body.get("LastName"), original.get("LastName"));
+		Assert.assertEquals(body.get("DepartmentId"), original.get("DepartmentId"));
+		Assert.assertEquals(body.size(), original.size());
+	}
+
+	@Test
+	public void rendersValuesByName() {
+		Map<String, Object> values = new HashMap<>();
+		values.put("FirstName", "Jane");
+		values.put("Age", "34");
+		Assert.assertEquals(text(PayloadTemplate.fromJson("{\"FirstName\":\"\",\"Age\":0,\"Phone\":\"\"}", "FirstName",
+				"Age", "Phone").render(values)), "{\"FirstName\":\"Jane\",\"Age\":34,\"Phone\":null}");
+	}
+
+	@Test
+	public void escapesStringValues() throws Exception {
+		PayloadTemplate template = PayloadTemplate.fromJson("{\"Name\":\"\",\"Fixed\":\"a\\\"b\"}", "Name");
+		String name = "O\"Brien \\ \n \u00e9";
+		byte[] body = template.render(name);
+		JsonNode parsed = MAPPER.readTree(body);
+		Assert.assertEquals(parsed.get("Name").asText(), name);
+		Assert.assertEquals(parsed.get("Fixed").asText(), "a\"b");
+	}
+
+	@Test
+	public void keepsBooleanAndNullSlots() {
+		PayloadTemplate currency = PayloadTemplate.fromJson("{\"Code\":\"\",\"IsActive\":false}", "Code", "IsActive");
+		Assert.assertEquals(text(currency.render(null, true)), "{\"Code\":null,\"IsActive\":true}");
+		Assert.assertEquals(text(currency.render("CAD", "false")), "{\"Code\":\"CAD\",\"IsActive\":false}");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsNonNumberInNumberSlot() {
+		appointment.render("Jane", "34; DROP", "9876543210");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsNonBooleanInBooleanSlot() {
+		PayloadTemplate.fromJson("{\"IsActive\":false}", "IsActive").render("yes");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsWrongNumberOfValues() {
+		appointment.render("Jane", 34);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsUnknownSlot() {
+		PayloadTemplate.fromJson("{\"FirstName\":\"\"}", "Surname");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsNonScalarSlot() {
+		PayloadTemplate.fromJson("{\"Tags\":[]}", "Tags");
+	}
+}
@@ -0,0 +1,105 @@
+package rest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class RateLimiterTest {
+
+	// One permit every 100 ms
+	private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final AtomicLong now = new AtomicLong();
+	private final List<Long> parks = new ArrayList<>();
+
+	@BeforeMethod
+	public void resetClock() {
+		now.set(0);
+		parks.clear();
+	}
+
+	// 10 per second on a clock that only moves when the test, or a park, moves it
+	private RateLimiter limiter(int burst) {
+		return new RateLimiter("TEST", 10, burst, now::get, nanos -> {
+			parks.add(nanos);
+			now.addAndGet(nanos);
+		});
+	}
+
+	@Test
+	public void allowsBurstThenRejects() {
+		RateLimiter limiter = limiter(3);
+		Assert.assertTrue(limiter.tryAcquire());
+		Assert.assertTrue(limiter.tryAcquire());
+		Assert.assertTrue(limiter.tryAcquire());
+		Assert.assertFalse(limiter.tryAcquire());
+		Assert.assertFalse(limiter.tryAcquire());
+	}
+
+	@Test
+	public void refillsOnePermitPerInterval() {
+		RateLimiter limiter = limiter(1);
+		Assert.assertTrue(limiter.tryAcquire());
+		now.addAndGet(INTERVAL_NANOS - 1);
+		Assert.assertFalse(limiter.tryAcquire());
+		now.addAndGet(1);
+		Assert.assertTrue(limiter.tryAcquire());
+		Assert.assertFalse(limiter.tryAcquire());
+	}
+
+	@Test
+	public void idleTimeRefillsNoMoreThanTheBurst() {
+		RateLimiter limiter = limiter(2);
+		now.addAndGet(5 * INTERVAL_NANOS);
+		Assert.assertTrue(limiter.tryAcquire());
+		Assert.assertTrue(limiter.tryAcquire());
+		Assert.assertFalse(limiter.tryAcquire());
+	}
+
+	@Test
+	public void acquireWaitsForTheNextSlot() {
+		RateLimiter limiter = limiter(1);
+		Assert.assertEquals(limiter.acquire(), 0);
+		Assert.assertTrue(parks.isEmpty());
+		now.addAndGet(30_000_000);
+		Assert.assertEquals(limiter.acquire(), INTERVAL_NANOS - 30_000_000);
+		Assert.assertEquals(parks, Arrays.asList(INTERVAL_NANOS - 30_000_000));
+		// Each waiter reserves the slot after the previous one
+		Assert.assertEquals(limiter.acquire(), INTERVAL_NANOS);
+	}
+
+	@Test
+	public void acquireParksAgainAfterAnEarlyWakeUp() {
+		AtomicLong wakeUps = new AtomicLong();
+		RateLimiter limiter = new RateLimiter("TEST", 10, 1, now::get, nanos -> {
+			// Spurious wake-up halfway through the first park
+			now.addAndGet(wakeUps.getAndIncrement() == 0 ? nanos / 2 : nanos);
+		});
+		limiter.acquire();
+		Assert.assertEquals(limiter.acquire(), INTERVAL_NANOS);
+		Assert.assertEquals(wakeUps.get(), 2);
+		Assert.assertEquals(now.get(), INTERVAL_NANOS);
+	}
+
+	@Test
+	public void rejectedTryAcquireTakesNothing() {
+		RateLimiter limiter = limiter(1);
+		Assert.assertTrue(limiter.tryAcquire());
+		for (int i = 0; i < 100; i++) {
+			Assert.assertFalse(limiter.tryAcquire());
+		}
+		now.addAndGet(INTERVAL_NANOS);
+		Assert.assertTrue(limiter.tryAcquire());
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsNonPositiveRate() {
+		new RateLimiter("TEST", 0, 1);
+	}
+}
@@ -0,0 +1,86 @@
+package rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+public class ResponseBodyStoreTest {
+
+	private static byte[] body(int results) {
+		StringBuilder json = new StringBuilder("{\"Status\":\"OK\",\"Results\":[");
+		for (int i = 0; i < results; i++) {
+			json.append(i == 0 ? "" : ",").append("{\"PatientId\":").append(i).append('}');
+		}
+		return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static ResponseBuilder builder() {
+		return new ResponseBuilder().setStatusCode(200).setStatusLine("HTTP/1.1 200")
+				.setHeaders(new Headers(new Header("X-Test", "yes"))).setContentType("application/json");
+	}
+
+	private static byte[] read(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		for (int read; (read = in.read(buffer)) >= 0;) {
+			out.write(buffer, 0, read);
+		}
+		return out.toByteArray();
+	}
+
+	@Test
+	public void bufferedBodyCanBeReadRepeatedlyInAnyOrder() throws IOException {
+		byte[] body = body(5000);
+		Response response = ResponseBodyStore.build(builder(), new ByteArrayInputStream(body));
+
+		Assert.assertEquals(read(response.asInputStream()), body);
+		Assert.assertEquals(response.asString().length(), body.length);
+		Assert.assertEquals(read(response.asInputStream()), body);
+		Assert.assertEquals(response.asByteArray(), body);
+		Assert.assertEquals(response.jsonPath().getList("Results").size(), 5000);
+		Assert.assertEquals(read(response.then().extract().response().asInputStream()), body);
+	}
+
+	@Test
+	public void keepsStatusAndHeaders() throws IOException {
+		Response response = ResponseBodyStore.build(builder(), new ByteArrayInputStream(body(1)));
+		Assert.assertEquals(response.statusCode(), 200);
+		Assert.assertEquals(response.getStatusLine(), "HTTP/1.1 200");
+		Assert.assertEquals(response.getHeader("X-Test"), "yes");
+		Assert.assertTrue(response.getContentType().startsWith("application/json"));
+	}
+
+	@Test
+	public void closesTheSourceStream() throws IOException {
+		AtomicBoolean closed = new AtomicBoolean();
+		InputStream source = new ByteArrayInputStream(body(1)) {
+			@Override
+			public void close() {
+				closed.set(true);
+			}
+		};
+		ResponseBodyStore.build(builder(), source);
+		Assert.assertTrue(closed.get());
+	}
+
+	@Test
+	public void bufferCopiesAnUnreadResponse() {
+		byte[] body = body(3);
+		Response streamed = builder().setBody(new ByteArrayInputStream(body)).build();
+		Response buffered = ResponseBodyStore.buffer(streamed);
+		Assert.assertEquals(buffered.asByteArray(), body);
+		Assert.assertEquals(buffered.asByteArray(), body);
+		Assert.assertEquals(buffered.getHeader("X-Test"), "yes");
+	}
+}
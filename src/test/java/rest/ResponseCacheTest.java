@@ -0,0 +1,53 @@
+package rest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Headers;
+
+public class ResponseCacheTest {
+
+	private final AtomicLong now = new AtomicLong();
+
+	private static ResponseSnapshot snapshot(String body) {
+		return ResponseSnapshot.of(new ResponseBuilder().setStatusCode(200).setStatusLine("HTTP/1.1 200")
+				.setHeaders(new Headers()).setBody(body).build());
+	}
+
+	@Test
+	public void entryExpiresAfterItsTtl() {
+		ResponseCache cache = new ResponseCache(10, now::get);
+		cache.put("GET /a", snapshot("a"), 60);
+		now.addAndGet(TimeUnit.SECONDS.toNanos(60) - 1);
+		Assert.assertEquals(cache.get("GET /a").toResponse().asString(), "a");
+		now.addAndGet(1);
+		Assert.assertNull(cache.get("GET /a"));
+		Assert.assertEquals(cache.size(), 0, "expired entries are dropped on read");
+	}
+
+	@Test
+	public void nonPositiveTtlNeverExpires() {
+		ResponseCache cache = new ResponseCache(10, now::get);
+		cache.put("GET /a", snapshot("a"), 0);
+		now.addAndGet(TimeUnit.DAYS.toNanos(365));
+		Assert.assertNotNull(cache.get("GET /a"));
+	}
+
+	@Test
+	public void evictsTheLeastRecentlyUsedEntry() {
+		ResponseCache cache = new ResponseCache(2, now::get);
+		cache.put("GET /a", snapshot("a"), 60);
+		cache.put("GET /b", snapshot("b"), 60);
+		// Reading /a makes /b the eldest
+		Assert.assertNotNull(cache.get("GET /a"));
+		cache.put("GET /c", snapshot("c"), 60);
+		Assert.assertNull(cache.get("GET /b"));
+		Assert.assertNotNull(cache.get("GET /a"));
+		Assert.assertNotNull(cache.get("GET /c"));
+		Assert.assertEquals(cache.evictions(), 1);
+	}
+}
@@ -0,0 +1,73 @@
+package rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.restassured.RestAssured;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+
+public class RestAssuredTransportTest {
+
+	private final RestAssuredTransport transport = new RestAssuredTransport();
+	private HttpServer server;
+
+	@BeforeClass
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		// Echoes the path it was asked for, as the server decoded it
+		server.createContext("/", exchange -> {
+			byte[] body = exchange.getRequestURI().getRawPath().getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopServer() {
+		server.stop(0);
+	}
+
+	private String baseUri() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	@Test
+	public void executeReturnsABufferedResponse() {
+		Response response = transport.execute(Method.GET, "/Patient/List",
+				RestAssured.given().baseUri(baseUri()).urlEncodingEnabled(false));
+		Assert.assertEquals(response.statusCode(), 200);
+		Assert.assertEquals(response.asString(), "/Patient/List");
+		Assert.assertEquals(response.asString(), "/Patient/List");
+	}
+
+	@Test
+	public void quotesIllegalCharactersInHandBuiltPaths() {
+		Response response = transport.execute(Method.GET, "/Patient/Search search",
+				RestAssured.given().baseUri(baseUri()).urlEncodingEnabled(false));
+		Assert.assertEquals(response.asString(), "/Patient/Search%20search");
+	}
+
+	@Test(expectedExceptions = RuntimeException.class)
+	public void connectionFailuresSurfaceUnchecked() throws IOException {
+		int closedPort;
+		try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			closedPort = socket.getLocalPort();
+		}
+		transport.execute(Method.GET, "/", RestAssured.given().baseUri("http://127.0.0.1:" + closedPort));
+	}
+}
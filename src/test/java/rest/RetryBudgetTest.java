@@ -0,0 +1,77 @@
+package rest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+public class RetryBudgetTest {
+
+	@Test
+	public void startsFullAndDrainsOneTokenPerRetry() {
+		RetryBudget budget = new RetryBudget(0.1, 3);
+		Assert.assertEquals(budget.tokens(), 3.0);
+		Assert.assertTrue(budget.tryWithdraw());
+		Assert.assertTrue(budget.tryWithdraw());
+		Assert.assertTrue(budget.tryWithdraw());
+		Assert.assertFalse(budget.tryWithdraw());
+		Assert.assertEquals(budget.tokens(), 0.0);
+	}
+
+	@Test
+	public void earnsRatioOfATokenPerRequest() {
+		RetryBudget budget = new RetryBudget(0.1, 3);
+		while (budget.tryWithdraw()) {
+			// drain
+		}
+		for (int i = 0; i < 9; i++) {
+			budget.onRequest();
+		}
+		Assert.assertFalse(budget.tryWithdraw(), "9 requests at 10% do not pay for a retry");
+		budget.onRequest();
+		Assert.assertTrue(budget.tryWithdraw());
+		Assert.assertFalse(budget.tryWithdraw());
+	}
+
+	@Test
+	public void balanceIsCappedAtMaxTokens() {
+		RetryBudget budget = new RetryBudget(0.5, 2);
+		for (int i = 0; i < 100; i++) {
+			budget.onRequest();
+		}
+		Assert.assertEquals(budget.tokens(), 2.0);
+	}
+
+	@Test
+	public void onlyGetLikeEndpointsAreIdempotentByDefault() {
+		Assert.assertTrue(ApiEndpoint.MAIN_STORE.isIdempotent());
+		Assert.assertFalse(ApiEndpoint.CREATE_APPOINTMENT.isIdempotent());
+		Assert.assertFalse(ApiEndpoint.CANCEL_APPOINTMENT.isIdempotent());
+		Assert.assertFalse(ApiEndpoint.ACTIVATE_PHARMACY_COUNTER.isIdempotent());
+	}
+
+	@Test
+	public void readsRetryAfterInSecondsOrAsHttpDate() {
+		Assert.assertEquals(RetryInterceptor.retryAfterMillis(response(null)), 0);
+		Assert.assertEquals(RetryInterceptor.retryAfterMillis(response("3")), 3000);
+		Assert.assertEquals(RetryInterceptor.retryAfterMillis(response("soon")), 0);
+
+		Clock clock = Clock.fixed(Instant.parse("2024-03-01T12:00:00Z"), ZoneOffset.UTC);
+		Assert.assertEquals(RetryInterceptor.retryAfterMillis(response("Fri, 01 Mar 2024 12:00:10 GMT"), clock), 10000);
+		Assert.assertEquals(RetryInterceptor.retryAfterMillis(response("Fri, 01 Mar 2024 11:59:50 GMT"), clock), 0);
+		Assert.assertEquals(RetryInterceptor.retryAfterMillis(response("Fri, 01 Mar 2024 13:00:00 +0100"), clock), 0);
+	}
+
+	private static Response response(String retryAfter) {
+		Headers headers = retryAfter == null ? new Headers() : new Headers(new Header("Retry-After", retryAfter));
+		return new ResponseBuilder().setStatusCode(503).setStatusLine("HTTP/1.1 503").setHeaders(headers).setBody("")
+				.build();
+	}
+}
@@ -0,0 +1,133 @@
+package rest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+public class SingleFlightInterceptorTest {
+
+	private static final int FOLLOWERS = 3;
+
+	private final AtomicInteger exchanges = new AtomicInteger();
+	private CountDownLatch leaderStarted;
+	private CountDownLatch release;
+	private ExecutorService threads;
+	private SingleFlightInterceptor interceptor;
+
+	@BeforeMethod
+	public void enableSingleFlight() {
+		System.setProperty("api.singleFlight.enabled", "true");
+		try {
+			interceptor = new SingleFlightInterceptor();
+		} finally {
+			System.clearProperty("api.singleFlight.enabled");
+		}
+		exchanges.set(0);
+		leaderStarted = new CountDownLatch(1);
+		release = new CountDownLatch(1);
+		threads = Executors.newFixedThreadPool(FOLLOWERS + 1);
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void stopThreads() {
+		release.countDown();
+		threads.shutdownNow();
+	}
+
+	private static ApiCall call() {
+		return new ApiCall(ApiEndpoint.BILLING_COUNTERS, ApiEndpoint.BILLING_COUNTERS.pathTemplate(),
+				RestAssured.given().header("Authorization", "user-a"));
+	}
+
+	// Holds the exchange open until the test releases it
+	private ApiInterceptor.Chain slowServer(RuntimeException failure) {
+		return call -> {
+			int exchange = exchanges.incrementAndGet();
+			leaderStarted.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (failure != null) {
+				throw failure;
+			}
+			return new ResponseBuilder().setStatusCode(200).setStatusLine("HTTP/1.1 200").setHeaders(new Headers())
+					.setBody("{\"Exchange\":" + exchange + "}").build();
+		};
+	}
+
+	// The followers are parked on the leader's future once they have been counted
+	private static void awaitShared(long before) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (ApiMetrics.get("BILLING_COUNTERS", "singleFlight.shared") < before + FOLLOWERS) {
+			Assert.assertTrue(System.nanoTime() < deadline, "followers did not join the flight");
+			Thread.yield();
+		}
+	}
+
+	private List<Future<Response>> startFlight(RuntimeException failure) throws InterruptedException {
+		long shared = ApiMetrics.get("BILLING_COUNTERS", "singleFlight.shared");
+		List<Future<Response>> results = new ArrayList<>();
+		results.add(threads.submit(() -> interceptor.intercept(call(), slowServer(failure))));
+		Assert.assertTrue(leaderStarted.await(10, TimeUnit.SECONDS));
+		for (int i = 0; i < FOLLOWERS; i++) {
+			results.add(threads.submit(() -> interceptor.intercept(call(), slowServer(failure))));
+		}
+		awaitShared(shared);
+		release.countDown();
+		return results;
+	}
+
+	@Test
+	public void concurrentIdenticalGetsShareOneExchange() throws Exception {
+		for (Future<Response> result : startFlight(null)) {
+			Response response = result.get(10, TimeUnit.SECONDS);
+			Assert.assertEquals(response.statusCode(), 200);
+			Assert.assertEquals(response.jsonPath().getInt("Exchange"), 1);
+		}
+		Assert.assertEquals(exchanges.get(), 1);
+
+		// Nothing is kept once the flight has landed
+		interceptor.intercept(call(), slowServer(null));
+		Assert.assertEquals(exchanges.get(), 2);
+	}
+
+	@Test
+	public void followersGetTheLeadersFailure() throws Exception {
+		IllegalStateException failure = new IllegalStateException("refused");
+		for (Future<Response> result : startFlight(failure)) {
+			try {
+				result.get(10, TimeUnit.SECONDS);
+				Assert.fail("the leader's failure must reach every caller");
+			} catch (ExecutionException e) {
+				Assert.assertSame(e.getCause(), failure);
+			}
+		}
+		Assert.assertEquals(exchanges.get(), 1);
+	}
+
+	@Test
+	public void streamingCallsAreNotShared() {
+		release.countDown();
+		interceptor.intercept(call().streaming(), slowServer(null));
+		interceptor.intercept(call().streaming(), slowServer(null));
+		Assert.assertEquals(exchanges.get(), 2);
+	}
+}
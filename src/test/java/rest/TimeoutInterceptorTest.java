@@ -0,0 +1,89 @@
+package rest;
+
+import java.net.SocketTimeoutException;
+
+import org.apache.http.conn.ConnectTimeoutException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+public class TimeoutInterceptorTest {
+
+	private final TimeoutInterceptor interceptor = new TimeoutInterceptor();
+
+	private static ApiCall call(ApiEndpoint endpoint) {
+		return new ApiCall(endpoint, endpoint.pathTemplate(), RestAssured.given());
+	}
+
+	private static Response ok() {
+		return new ResponseBuilder().setStatusCode(200).setStatusLine("HTTP/1.1 200").setHeaders(new Headers())
+				.setBody("{}").build();
+	}
+
+	@Test
+	public void withoutDeadlineRunsOnTheCallerWithTimeoutsBound() {
+		Assert.assertEquals(ApiEndpoint.MAIN_STORE.deadline().toMillis(), 0);
+		Thread caller = Thread.currentThread();
+		Response response = interceptor.intercept(call(ApiEndpoint.MAIN_STORE), c -> {
+			Assert.assertSame(Thread.currentThread(), caller);
+			Assert.assertNotNull(ExchangeTimeouts.current());
+			return ok();
+		});
+		Assert.assertEquals(response.statusCode(), 200);
+		Assert.assertNull(ExchangeTimeouts.current());
+	}
+
+	@Test
+	public void withDeadlineRunsOnTheExchangePool() {
+		Assert.assertTrue(ApiEndpoint.ALL_STOCK_DETAILS.deadline().toMillis() > 0);
+		Thread caller = Thread.currentThread();
+		Response response = interceptor.intercept(call(ApiEndpoint.ALL_STOCK_DETAILS), c -> {
+			Assert.assertNotSame(Thread.currentThread(), caller);
+			Assert.assertNotNull(ExchangeTimeouts.current());
+			return ok();
+		});
+		Assert.assertEquals(response.statusCode(), 200);
+	}
+
+	@Test
+	public void rethrowsTheExchangeFailureUnwrapped() {
+		IllegalStateException failure = new IllegalStateException("refused");
+		try {
+			interceptor.intercept(call(ApiEndpoint.ALL_STOCK_DETAILS), c -> {
+				throw failure;
+			});
+			Assert.fail("expected the exchange failure");
+		} catch (IllegalStateException e) {
+			Assert.assertSame(e, failure);
+		}
+	}
+
+	@Test
+	public void countsReadAndConnectTimeouts() {
+		String scope = ApiEndpoint.MAIN_STORE.name();
+		long read = ApiMetrics.get(scope, "timeout.read");
+		long connect = ApiMetrics.get(scope, "timeout.connect");
+
+		fail(new RuntimeException(new SocketTimeoutException("Read timed out")));
+		fail(new RuntimeException(new ConnectTimeoutException("Connect timed out")));
+		fail(new RuntimeException("not a timeout"));
+
+		Assert.assertEquals(ApiMetrics.get(scope, "timeout.read"), read + 1);
+		Assert.assertEquals(ApiMetrics.get(scope, "timeout.connect"), connect + 1);
+	}
+
+	private void fail(RuntimeException error) {
+		try {
+			interceptor.intercept(call(ApiEndpoint.MAIN_STORE), c -> {
+				throw error;
+			});
+			Assert.fail("expected " + error);
+		} catch (RuntimeException e) {
+			Assert.assertSame(e, error);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package rest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class UriTemplateTest {
+
+	private final UriTemplate clash = UriTemplate.compile(
+			"/Appointment/CheckClashingAppointment?patientId={patientId}&requestDate={requestDate}&performerId={performerId}");
+
+	@Test
+	public void expandsValuesInTemplateOrder() {
+		Assert.assertEquals(clash.variableNames(), Arrays.asList("patientId", "requestDate", "performerId"));
+		Assert.assertEquals(clash.expand(42, "2024-11-12", 7),
+				"/Appointment/CheckClashingAppointment?patientId=42&requestDate=2024-11-12&performerId=7");
+	}
+
+	@Test
+	public void expandsValuesByName() {
+		Map<String, Object> values = new HashMap<>();
+		values.put("performerId", 7);
+		values.put("patientId", 42);
+		Assert.assertEquals(clash.expand(values),
+				"/Appointment/CheckClashingAppointment?patientId=42&requestDate=&performerId=7");
+	}
+
+	@Test
+	public void percentEncodesEverythingOutsideTheUnreservedSet() {
+		UriTemplate counter = UriTemplate.compile("/Security/ActivatePharmacyCounter?counterId={id}&counterName={name}");
+		Assert.assertEquals(counter.expand(1, "Morning Counter"),
+				"/Security/ActivatePharmacyCounter?counterId=1&counterName=Morning%20Counter");
+		Assert.assertEquals(UriTemplate.encode("a&b=c+d/e?"), "a%26b%3Dc%2Bd%2Fe%3F");
+		Assert.assertEquals(UriTemplate.encode("-._~AZaz09"), "-._~AZaz09");
+	}
+
+	@Test
+	public void encodesNonAsciiAsUtf8() {
+		Assert.assertEquals(UriTemplate.encode("\u00e9"), "%C3%A9");
+		Assert.assertEquals(UriTemplate.encode("\ud83d\ude00"), "%F0%9F%98%80");
+	}
+
+	@Test
+	public void nullValuesExpandToEmpty() {
+		UriTemplate search = UriTemplate.compile("/Patient/SearchRegisteredPatient?search={search}");
+		Assert.assertEquals(search.expand((Object) null), "/Patient/SearchRegisteredPatient?search=");
+		Assert.assertEquals(search.expand(Collections.<String, Object>emptyMap()),
+				"/Patient/SearchRegisteredPatient?search=");
+	}
+
+	@Test
+	public void templateWithoutVariablesExpandsToItself() {
+		UriTemplate stores = UriTemplate.compile("/Dispensary/PharmacyStores");
+		Assert.assertTrue(stores.variableNames().isEmpty());
+		Assert.assertEquals(stores.expand(), "/Dispensary/PharmacyStores");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsWrongNumberOfValues() {
+		clash.expand(42, "2024-11-12");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsUnclosedVariable() {
+		UriTemplate.compile("/Patient/SearchRegisteredPatient?search={search");
+	}
+
+	@Test
+	public void quotesOnlyCharactersIllegalInAUri() {
+		Assert.assertEquals(UriTemplate.quoteIllegalCharacters("/Patient/Search?search=John Doe&x=%20"),
+				"/Patient/Search?search=John%20Doe&x=%20");
+		String legal = "/Appointment/Appointments?FromDate=2024-11-12&status=new";
+		Assert.assertSame(UriTemplate.quoteIllegalCharacters(legal), legal);
+	}
+}
@@ -17,6 +17,7 @@ import org.testng.annotations.Test;
 
 import coreUtilities.utils.FileOperations;
 import io.restassured.response.Response;
+import rest.ApiEndpoint;
 import rest.ApiUtil;
 
 public class RestAssured_TestCases_PL1 {
@@ -107,8 +108,8 @@ public class RestAssured_TestCases_PL1 {
 		apiUtil = new ApiUtil();
 
 		Assert.assertNotNull(appointmentId, "Appointment ID should be set by the createAppointmentTest.");
-		Response cancelResponse = apiUtil.cancelAppointmentWithAuth(
-				"/Appointment/AppointmentStatus?appointmentId=" + appointmentId + "&status=cancelled", null);
+		Response cancelResponse = apiUtil
+				.cancelAppointmentWithAuth(ApiEndpoint.CANCEL_APPOINTMENT.expand(appointmentId, "cancelled"), null);
 
 		boolean isValidationSuccessful = TestCodeValidator.validateTestMethodFromFile(FILEPATH,
 				"cancelAppointmentWithAuth", List.of("given", "then", "extract", "response"));
@@ -145,8 +146,8 @@ public class RestAssured_TestCases_PL1 {
 		String performerId = clashedData.get("performerId");
 		String patientId = clashedData.get("patientId");
 
-		Response updateResponse = apiUtil.clashAppoitnmentWithAuth("/Appointment/CheckClashingAppointment?patientId="
-				+ patientId + "&requestDate=" + requestDate + "&performerId=" + performerId, null);
+		Response updateResponse = apiUtil.clashAppoitnmentWithAuth(
+				ApiEndpoint.CLASH_APPOINTMENT.expand(patientId, requestDate, performerId), null);
 
 		Assert.assertEquals(updateResponse.statusCode(), 200, "Status code should be 200 OK.");
 
@@ -220,9 +221,8 @@ public class RestAssured_TestCases_PL1 {
 		String performerId = searchResult.get("performerId");
 
 		// Send request and get response
-		Response updateResponse = apiUtil.bookingListWithAuthInRange("/Appointment/Appointments?FromDate="
-				+ dateFiveDaysBeforeStr + "&ToDate=" + currentDateStr + "&performerId=" + performerId + "&status=new",
-				null);
+		Response updateResponse = apiUtil.bookingListWithAuthInRange(
+				ApiEndpoint.BOOKING_LIST.expand(dateFiveDaysBeforeStr, currentDateStr, performerId, "new"), null);
 
 		// Assert that the status code is 200 OK
 		Assert.assertEquals(updateResponse.statusCode(), 200, "Status code should be 200 OK.");
@@ -413,8 +413,8 @@ public class RestAssured_TestCases_PL1 {
 		System.out.println("The counter id from the sheet is: " + counterId);
 		System.out.println("The counter name from the sheet is: " + counterName);
 
-		Response activationResponse = apiUtil.ActivatePharmCount(
-				"/Security/ActivatePharmacyCounter?counterId=" + counterId + "&counterName=" + counterName, null);
+		Response activationResponse = apiUtil
+				.ActivatePharmCount(ApiEndpoint.ACTIVATE_PHARMACY_COUNTER.expand(counterId, counterName), null);
 
 		Assert.assertEquals(activationResponse.statusCode(), 200, "Status code should be 200 OK.");
 
@@ -627,9 +627,8 @@ public class RestAssured_TestCases_PL1 {
 		String isInsurance = postData.get("IsInsurance");
 		String imisCode = postData.get("IMISCode");
 
-		Response matchingPatientResponse = apiUtil.findMatchingPatientWithAuth("/Patient/MatchingPatients?FirstName="
-				+ firstName + "&LastName=" + lastName + "&PhoneNumber=" + phoneNumber + "&Age=" + age + "&Gender="
-				+ gender + "&IsInsurance=" + isInsurance + "&IMISCode=" + imisCode + "", null);
+		Response matchingPatientResponse = apiUtil.findMatchingPatientWithAuth(ApiEndpoint.MATCHING_PATIENTS
+				.expand(firstName, lastName, phoneNumber, age, gender, isInsurance, imisCode), null);
 
 		boolean isValidationSuccessful = TestCodeValidator.validateTestMethodFromFile(FILEPATH,
 				"findMatchingPatientWithAuth", List.of("given", "then", "extract", "response"));